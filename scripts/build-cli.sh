@@ -0,0 +1,40 @@
+#!/bin/sh
+# Builds a trimmed runtime image for the headless solver (solver module only, no JavaFX) and records an
+# AppCDS archive from a training run so short-lived solver processes start quickly.
+# Needs JDK 15 or newer on the PATH. Output goes to out/cli, run it with out/cli/sudoku [--grade] [file...]
+set -e
+cd "$(dirname "$0")/.."
+OUT=out/cli
+rm -rf "$OUT"
+mkdir -p "$OUT/classes"
+
+javac -d "$OUT/classes" --module-source-path "./*/src" --module solver
+jar --create --file "$OUT/solver.jar" --main-class solver.SudokuCli -C "$OUT/classes/solver" .
+jlink --module-path "$OUT/solver.jar" --add-modules solver --output "$OUT/image" \
+    --strip-debug --no-header-files --no-man-pages --compress=2
+
+# base archive of the JDK classes in the image, the application archives are layered on top of it
+"$OUT/image/bin/java" -Xshare:dump > /dev/null
+
+# training runs, every class they load goes into the archive
+cat > "$OUT/training.txt" <<'PUZZLES'
+530070000600195000098000060800060003400803001700020006060000280000419005000080079
+800000000003600000070090200050007000000045700000100030001000068008500010090000400
+PUZZLES
+"$OUT/image/bin/java" -XX:ArchiveClassesAtExit="$OUT/image/lib/solver.jsa" -m solver "$OUT/training.txt" > /dev/null
+"$OUT/image/bin/java" -XX:ArchiveClassesAtExit="$OUT/image/lib/grader.jsa" -m solver --grade "$OUT/training.txt" > /dev/null
+
+cat > "$OUT/sudoku" <<'LAUNCHER'
+#!/bin/sh
+DIR="$(dirname "$0")"
+ARCHIVE=solver.jsa
+for arg in "$@"; do
+    if [ "$arg" = "--grade" ]; then
+        ARCHIVE=grader.jsa
+    fi
+done
+exec "$DIR/image/bin/java" -XX:SharedArchiveFile="$DIR/image/lib/$ARCHIVE" -XX:TieredStopAtLevel=1 -XX:+UseSerialGC \
+    -m solver "$@"
+LAUNCHER
+chmod +x "$OUT/sudoku"
+echo "built $OUT/sudoku"
@@ -0,0 +1,18 @@
+#!/bin/sh
+# Compiles the solver together with its tests and runs them with the JUnit console launcher.
+# Needs JDK 15 or newer on the PATH and the junit-platform-console-standalone jar (1.10 or newer),
+# passed as the first argument or in JUNIT_JAR. Output goes to out/test.
+set -e
+cd "$(dirname "$0")/.."
+JUNIT_JAR="${1:-$JUNIT_JAR}"
+if [ -z "$JUNIT_JAR" ]; then
+    echo "usage: scripts/test.sh path/to/junit-platform-console-standalone.jar" >&2
+    exit 2
+fi
+OUT=out/test
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+# the tests sit in the solver package to reach package-private classes, so both are compiled on the class path
+javac -d "$OUT" -cp "$JUNIT_JAR" $(find solver/src/solver solver/test -name "*.java")
+java -jar "$JUNIT_JAR" execute --class-path "$OUT" --scan-class-path --disable-banner
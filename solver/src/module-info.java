@@ -0,0 +1,5 @@
+module solver {
+    requires java.management;
+    requires jdk.jfr;
+    exports solver;
+}
@@ -0,0 +1,490 @@
+package solver;
+
+import java.util.*;
+
+/**
+ * Representation of a sudoku board
+ */
+
+public class Board {
+    SudokuModel model; //model that this board is for
+    Node[][] board; //2d array of nodes to represent the board
+    private final Variant variant; //constraints of the puzzle
+    private boolean broken; //true once the board cannot be solved, found as each number is placed
+    private TreeSet<Integer> conflicts; //cells involved in conflicting numbers added to the original board, null if none
+    private static final long[][] ZOBRIST = makeZobristKeys(); //random key for each cell and value
+
+    /**
+     * This constructor makes a new board for backtracking, making a deep copy
+     * @param board current board
+     */
+    public Board(Node[][] board) {
+        this(board, Variant.CLASSIC);
+    }
+
+    /**
+     * This constructor makes a new board of a variant for backtracking, making a deep copy
+     * @param board     current board
+     * @param variant   constraints of the puzzle
+     */
+    public Board(Node[][] board, Variant variant) {
+        this.variant = variant;
+        this.board = copyArrayBacktracking(board);
+        this.broken = findBroken();
+    }
+
+    /**
+     * This constructor makes an initial empty board
+     * @param model model that this board is for
+     */
+    public Board(SudokuModel model) {
+        this.model = model;
+        this.variant = model.getVariant();
+        this.board = makeEmptyBoard();
+    }
+
+    /**
+     * Board accessor
+     * @return  board
+     */
+    public Node[][] getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Variant accessor
+     * @return  constraints of the puzzle
+     */
+    public Variant getVariant() {
+        return this.variant;
+    }
+
+    /**
+     * Hashes the values placed on this board. The hash is worked out on each call rather than kept up to date,
+     * since the search only needs it for the few boards it stores or looks up in its transposition table.
+     * @return  zobrist hash of the values placed on this board
+     */
+    public long getHash() {
+        return computeHash(this.board);
+    }
+
+    /**
+     * Reads a classic puzzle without a model, for solving away from the display
+     * @param puzzle    81 characters in row major order, 1 to 9 for givens and anything else for empty cells
+     * @return          board with the givens placed, not valid if they conflict
+     */
+    public static Board parse(CharSequence puzzle) {
+        if (puzzle.length() != 81) {
+            throw new IllegalArgumentException("puzzle must have 81 cells: " + puzzle.length());
+        }
+        Node[][] nodes = new Node[9][9];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                nodes[r][c] = new Node(0, r, c, (r / 3) * 3 + c / 3);
+            }
+        }
+        Board board = new Board(nodes);
+        for (int cell = 0; cell < 81; cell++) {
+            char ch = puzzle.charAt(cell);
+            if (ch >= '1' && ch <= '9') {
+                if (!board.board[cell / 9][cell % 9].getPossibilities().contains(ch - '0')) {
+                    board.broken = true;
+                }
+                board.addNumberBacktracking(ch - '0', cell / 9, cell % 9);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Initializes an empty board representation
+     * @return  2d array of valueless nodes
+     */
+    public Node[][] makeEmptyBoard() {
+        Node[][] board = new Node[9][9];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                board[r][c] = new Node(0, r, c, model.determineSquare(r, c), model.getButtonID(r, c));
+            }
+        }
+        for (Cage cage : variant.getCages()) {
+            for (int cell : cage.getCells()) {
+                board[cell / 9][cell % 9].retainPossibilities(cage.getFeasible());
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Add a number to the original board
+     * @param value number to add
+     * @param row   row to add number in
+     * @param col   column to add number in
+     */
+    public void addNumber(int value, int row, int col) {
+        int square = determineSquare(row, col);
+        int cell = row * 9 + col;
+        for (int peer : variant.getPeers(cell)) {
+            if (this.board[peer / 9][peer % 9].getVal() == value) {
+                addConflict(peer);
+                addConflict(cell);
+            }
+        }
+        int[] peers = variant.getPeers(cell);
+        boolean[] open = new boolean[peers.length]; //true for peers that still have a possibility before this number
+        for (int i = 0; i < peers.length; i++) {
+            open[i] = !this.board[peers[i] / 9][peers[i] % 9].getPossibilities().isEmpty();
+        }
+        this.board[row][col] = new Node(value, row, col, square, model.getButtonID(row, col));
+        removeFromPeers(value, row, col);
+        for (int i = 0; i < peers.length; i++) {
+            if (open[i] && this.board[peers[i] / 9][peers[i] % 9].getPossibilities().isEmpty()) {
+                addConflict(peers[i]);
+                addConflict(cell);
+            }
+        }
+        Cage cage = variant.getCage(cell);
+        if (cage != null && !cage.allows(placedInCage(cage))) {
+            for (int member : cage.getCells()) {
+                if (this.board[member / 9][member % 9].getVal() != 0) {
+                    addConflict(member);
+                }
+            }
+        }
+        model.getObserver().update(this.model, new SudokuModelData(value, row, col, model.getButtonID(row, col)));
+    }
+
+    /**
+     * Removes a number from the original board, giving back the possibilities it took from its peers
+     * and dropping the conflicts it was part of
+     * @param row   row to clear
+     * @param col   column to clear
+     */
+    public void clearNumber(int row, int col) {
+        int cell = row * 9 + col;
+        if (this.board[row][col].getVal() == 0) {
+            return;
+        }
+        restorePossibilities(cell);
+        int[] peers = variant.getPeers(cell);
+        for (int peer : peers) {
+            if (this.board[peer / 9][peer % 9].getVal() == 0) {
+                restorePossibilities(peer);
+            }
+        }
+        if (conflicts != null) {
+            conflicts.remove(cell);
+            for (int peer : peers) {
+                if (conflicts.contains(peer) && !conflicted(peer)) {
+                    conflicts.remove(peer);
+                }
+            }
+        }
+        if (this.board[row][col].getPossibilities().isEmpty()) {
+            addConflict(cell);
+        }
+        broken = (conflicts != null && !conflicts.isEmpty()) || findBroken();
+        model.getObserver().update(this.model, new SudokuModelData(0, row, col, model.getButtonID(row, col)));
+    }
+
+    /**
+     * Replaces a cell with an empty one whose possibilities are worked out again from the numbers around it
+     * @param cell  cell index in row major order
+     */
+    private void restorePossibilities(int cell) {
+        int mask = 0x3FE; //bits 1 to 9
+        for (int peer : variant.getPeers(cell)) {
+            mask &= ~(1 << this.board[peer / 9][peer % 9].getVal());
+        }
+        Cage cage = variant.getCage(cell);
+        if (cage != null) {
+            mask &= cage.remaining(placedInCage(cage));
+        }
+        Node old = this.board[cell / 9][cell % 9];
+        Node node = new Node(0, old.getRow(), old.getCol(), old.getSquare(), old.getID());
+        node.retainPossibilities(mask);
+        this.board[cell / 9][cell % 9] = node;
+    }
+
+    /**
+     * Checks whether a cell is still part of a conflict, used once a number near it has been cleared
+     * @param cell  cell index in row major order
+     * @return      true if the cell is empty with no possibilities, or holds a number that is repeated by a peer,
+     *              that shares a unit with an empty cell with no possibilities, or breaks its cage
+     */
+    private boolean conflicted(int cell) {
+        Node node = this.board[cell / 9][cell % 9];
+        if (node.getVal() == 0) {
+            return node.getPossibilities().isEmpty();
+        }
+        for (int peer : variant.getPeers(cell)) {
+            Node other = this.board[peer / 9][peer % 9];
+            if (other.getVal() == node.getVal() || (other.getVal() == 0 && other.getPossibilities().isEmpty())) {
+                return true;
+            }
+        }
+        Cage cage = variant.getCage(cell);
+        return cage != null && !cage.allows(placedInCage(cage));
+    }
+
+    /**
+     * Adds a number to a board from a successor while backtracking to not update the original board
+     * @param value number to add
+     * @param row   row to add number in
+     * @param col   column to add number in
+     */
+    public void addNumberBacktracking(int value, int row, int col) {
+        int square = determineSquare(row, col);
+        this.board[row][col] = new Node(value, row, col, square);
+        removeFromPeers(value, row, col);
+    }
+
+    /**
+     * Removes a newly placed number from the possibilities of every cell that shares a unit or cage with it
+     * @param value number that was placed
+     * @param row   row it was placed in
+     * @param col   column it was placed in
+     */
+    private void removeFromPeers(int value, int row, int col) {
+        int cell = row * 9 + col;
+        for (int peer : variant.getPeers(cell)) {
+            Node node = this.board[peer / 9][peer % 9];
+            node.removePossibility(value);
+            if (node.getPossibilities().isEmpty()) {
+                broken = true;
+            }
+        }
+        if (variant.hasCages()) {
+            Cage cage = variant.getCage(cell);
+            if (cage != null) {
+                int placed = placedInCage(cage);
+                if (!cage.allows(placed)) {
+                    broken = true;
+                }
+                int remaining = cage.remaining(placed);
+                for (int member : cage.getCells()) {
+                    Node node = this.board[member / 9][member % 9];
+                    if (node.getVal() == 0) {
+                        node.retainPossibilities(remaining);
+                        if (node.getPossibilities().isEmpty()) {
+                            broken = true;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a cell as part of a conflict, which also makes the board unsolvable
+     * @param cell  cell index in row major order
+     */
+    private void addConflict(int cell) {
+        if (conflicts == null) {
+            conflicts = new TreeSet<>();
+        }
+        conflicts.add(cell);
+        broken = true;
+    }
+
+    /**
+     * Gets the cells involved in conflicts, either two equal numbers that share a unit or cage,
+     * or a cell left without possibilities along with the number that removed the last one
+     * @return  cell indices in row major order, empty if the numbers added so far do not conflict
+     */
+    public Set<Integer> getConflicts() {
+        return conflicts == null ? Collections.emptySet() : Collections.unmodifiableSet(conflicts);
+    }
+
+    /**
+     * Checks a copied board for the problems that are otherwise found as numbers are placed
+     * @return  true if a cell has no possibilities or a cage can no longer reach its sum
+     */
+    private boolean findBroken() {
+        for (Node[] nodes : this.board) {
+            for (Node n : nodes) {
+                if (n.getPossibilities().isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        for (Cage cage : variant.getCages()) {
+            if (!cage.allows(placedInCage(cage))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the numbers already placed in a cage
+     * @param cage  cage to read
+     * @return      bitmask with bit d set for each number d in the cage
+     */
+    private int placedInCage(Cage cage) {
+        int placed = 0;
+        for (int member : cage.getCells()) {
+            placed |= 1 << this.board[member / 9][member % 9].getVal();
+        }
+        return placed & ~1;
+    }
+
+    /**
+     * Computes the hash of a board from scratch
+     * @param board board to hash
+     * @return      xor of the keys for every placed value
+     */
+    public static long computeHash(Node[][] board) {
+        long hash = 0;
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                hash ^= ZOBRIST[r * 9 + c][board[r][c].getVal()];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Generates the zobrist keys, empty cells have a key of 0 so they do not affect the hash
+     * @return  table of keys indexed by cell then value
+     */
+    private static long[][] makeZobristKeys() {
+        Random random = new Random(0x5D0C0L);
+        long[][] keys = new long[81][10];
+        for (int cell = 0; cell < 81; cell++) {
+            for (int value = 1; value <= 9; value++) {
+                keys[cell][value] = random.nextLong();
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Checks if the board is filled in
+     * @return  true if board is full, otherwise false
+     */
+    public boolean boardFilled() {
+        if (broken) {
+            return false;
+        }
+        for (Node[] nodes : this.board) {
+            for (Node n : nodes) {
+                if (!n.determined()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the successors for the current board
+     * @return  collection of successors
+     */
+    public Collection<Board> getSuccessors() {
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (board[r][c].getVal() == 0) {
+                    return branch(r, c);
+                }
+            }
+        }
+        return new LinkedList<>();
+    }
+
+    /**
+     * Gets the successors for the current board, branching on the empty cell with the fewest possibilities
+     * @return  collection of successors
+     */
+    public Collection<Board> getSuccessorsMostConstrained() {
+        int bestRow = -1;
+        int bestCol = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (board[r][c].getVal() == 0 && board[r][c].getPossibilities().size() < fewest) {
+                    fewest = board[r][c].getPossibilities().size();
+                    bestRow = r;
+                    bestCol = c;
+                }
+            }
+        }
+        if (bestRow == -1) {
+            return new LinkedList<>();
+        }
+        return branch(bestRow, bestCol);
+    }
+
+    /**
+     * Makes one successor for each possibility of a cell
+     * @param row   row of the cell to branch on
+     * @param col   column of the cell to branch on
+     * @return      collection of successors
+     */
+    private Collection<Board> branch(int row, int col) {
+        List<Board> successors = new LinkedList<>();
+        for (int possibility : board[row][col].getPossibilities()) {
+            Board newBoard = new Board(this.board, this.variant);
+            newBoard.addNumberBacktracking(possibility, row, col);
+            successors.add(newBoard);
+        }
+        return successors;
+    }
+
+    /**
+     * Gets a string representation of the board
+     * @return  board as string
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                str.append(board[r][c].toString());
+            }
+            str.append("\n");
+        }
+        return str.toString();
+    }
+
+    /**
+     * Checks if the board is valid
+     * @return  true if board valid so far, false if board unsolvable
+     */
+    public boolean isValid() {
+        return !broken;
+    }
+
+    /**
+     * Deep copies the board
+     * @param board board to copy
+     * @return      copy of board
+     */
+    public static Node[][] copyArrayBacktracking(Node[][] board){
+        Node[][] copy = new Node[9][9];
+        for (int r = 0; r < 9; r++){
+            for (int c = 0; c < 9; c++) {
+                copy[r][c] = board[r][c].copyNodeBacktracking();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Determines the square of a certain location
+     * @param row   row
+     * @param col   column
+     * @return      square that this row and column coordinate is in
+     */
+    public int determineSquare(int row, int col) {
+        if (row < 3) {
+            return (col / 3);
+        }
+        else if (row < 6) {
+            return 3 + (col / 3);
+        }
+        else {
+            return 6 + (col / 3);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package solver;
+
+import java.util.ArrayList;
+
+/**
+ * A killer sudoku cage, a group of cells with distinct values that add up to a given sum
+ * @author Will Mackin
+ */
+
+public class Cage {
+    private final int sum; //total of the values in the cage
+    private final int[] cells; //cell indices in row major order
+    private final int[] combinations; //bitmasks of every set of distinct values that fits the cage
+    private final int feasible; //bitmask of every value that appears in some combination
+
+    /**
+     * Makes a cage and precomputes the value sets that can fill it
+     * @param sum   total of the values in the cage
+     * @param cells cell indices in row major order
+     */
+    public Cage(int sum, int... cells) {
+        if (cells.length < 1 || cells.length > 9) {
+            throw new IllegalArgumentException("cage must have between 1 and 9 cells: " + cells.length);
+        }
+        for (int cell : cells) {
+            if (cell < 0 || cell >= 81) {
+                throw new IllegalArgumentException("cell out of range: " + cell);
+            }
+        }
+        this.sum = sum;
+        this.cells = cells.clone();
+        ArrayList<Integer> combos = new ArrayList<>();
+        int union = 0;
+        for (int set = 0; set < 512; set++) {
+            int mask = set << 1;
+            if (Integer.bitCount(mask) == cells.length && total(mask) == sum) {
+                combos.add(mask);
+                union |= mask;
+            }
+        }
+        if (combos.isEmpty()) {
+            throw new IllegalArgumentException("no values can fill " + cells.length + " cells with a sum of " + sum);
+        }
+        this.combinations = new int[combos.size()];
+        for (int i = 0; i < combinations.length; i++) {
+            combinations[i] = combos.get(i);
+        }
+        this.feasible = union;
+    }
+
+    /**
+     * Adds up the values in a bitmask
+     * @param mask  bitmask with bit d set for each value d
+     * @return      sum of the values
+     */
+    private static int total(int mask) {
+        int total = 0;
+        for (int val = 1; val <= 9; val++) {
+            if ((mask & (1 << val)) != 0) {
+                total += val;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the values that can still go in the empty cells of this cage
+     * @param placed    bitmask of the values already placed in the cage
+     * @return          bitmask of the remaining values
+     */
+    public int remaining(int placed) {
+        int union = 0;
+        for (int combination : combinations) {
+            if ((combination & placed) == placed) {
+                union |= combination;
+            }
+        }
+        return union & ~placed;
+    }
+
+    /**
+     * Checks if the values already placed in this cage can be part of a solution
+     * @param placed    bitmask of the values already placed in the cage
+     * @return          true if some combination contains every placed value, otherwise false
+     */
+    public boolean allows(int placed) {
+        for (int combination : combinations) {
+            if ((combination & placed) == placed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sum accessor
+     * @return  total of the values in the cage
+     */
+    public int getSum() {
+        return this.sum;
+    }
+
+    /**
+     * Cells accessor
+     * @return  cell indices in row major order
+     */
+    public int[] getCells() {
+        return this.cells;
+    }
+
+    /**
+     * Feasible values accessor
+     * @return  bitmask of every value that can appear in this cage
+     */
+    public int getFeasible() {
+        return this.feasible;
+    }
+}
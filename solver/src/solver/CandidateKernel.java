@@ -0,0 +1,111 @@
+package solver;
+
+/**
+ * Bitmask based candidate tallies over the 27 units (rows, columns and squares) of a board.
+ * Bit d of a mask is set when d is a possible value of a cell.
+ * @author Will Mackin
+ */
+
+public final class CandidateKernel {
+    static final int[][] UNITS = makeUnits(); //cell indices of every row, column and square
+
+    private CandidateKernel() {
+    }
+
+    /**
+     * Builds the candidate mask of every empty cell
+     * @param board board to read
+     * @return      array of 81 masks in row major order, 0 for cells that already have a value
+     */
+    public static int[] candidateMasks(Board board) {
+        int[] masks = new int[81];
+        Node[][] nodes = board.getBoard();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (nodes[r][c].getVal() == 0) {
+                    int mask = 0;
+                    for (int val : nodes[r][c].getPossibilities()) {
+                        mask |= 1 << val;
+                    }
+                    masks[r * 9 + c] = mask;
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Finds every value that has only one possible cell in some classic unit
+     * @param masks     candidate masks from candidateMasks
+     * @param singles   output array with room for at least 243 entries, read with cellOf and valueOf
+     * @return          number of hidden singles written to singles
+     */
+    public static int hiddenSingles(int[] masks, int[] singles) {
+        return hiddenSingles(UNITS, masks, singles);
+    }
+
+    /**
+     * Finds every value that has only one possible cell in some unit
+     * @param units     units to check, each holding every value once
+     * @param masks     candidate masks from candidateMasks
+     * @param singles   output array with room for 9 entries per unit, read with cellOf and valueOf
+     * @return          number of hidden singles written to singles
+     */
+    public static int hiddenSingles(int[][] units, int[] masks, int[] singles) {
+        int count = 0;
+        for (int[] unit : units) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                twice |= once & masks[cell];
+                once |= masks[cell];
+            }
+            int unique = once & ~twice;
+            if (unique == 0) {
+                continue;
+            }
+            for (int cell : unit) {
+                int hit = masks[cell] & unique;
+                while (hit != 0) {
+                    singles[count++] = (cell << 4) | Integer.numberOfTrailingZeros(hit);
+                    hit &= hit - 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the cell of an entry written by hiddenSingles
+     * @param single    encoded hidden single
+     * @return          cell index in row major order
+     */
+    public static int cellOf(int single) {
+        return single >>> 4;
+    }
+
+    /**
+     * Gets the value of an entry written by hiddenSingles
+     * @param single    encoded hidden single
+     * @return          value between 1 and 9
+     */
+    public static int valueOf(int single) {
+        return single & 0xF;
+    }
+
+    /**
+     * Lists the cells of each unit, rows first, then columns, then squares
+     * @return  27 arrays of 9 cell indices
+     */
+    private static int[][] makeUnits() {
+        int[][] units = new int[27][9];
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                units[i][j] = i * 9 + j;
+                units[9 + i][j] = j * 9 + i;
+                units[18 + i][j] = ((i / 3) * 3 + j / 3) * 9 + (i % 3) * 3 + j % 3;
+            }
+        }
+        return units;
+    }
+}
@@ -0,0 +1,152 @@
+package solver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Snapshot of a depth first search, enough to continue it after a restart.
+ * The search is rebuilt from the board it branched from, the index of the successor taken at each layer
+ * down to the board being searched, and that board, which is checked against the rebuilt one on resume.
+ * Boards are stored as 81 digits packed two to a byte, so a checkpoint is at most 186 bytes.
+ * @author Will Mackin
+ */
+
+final class Checkpoint {
+    private static final int MAGIC = 0x53444B43; //"SDKC", marks a checkpoint file
+    private static final int VERSION = 1; //format version
+
+    private final Engine engine; //engine whose successor order the path follows
+    private final byte[] root; //values of the board the search branched from
+    private final int[] path; //successor index taken at each layer, from the root down
+    private final byte[] board; //values of the board being searched at the end of the path
+    private final long nodes; //boards searched before the snapshot
+    private final long backtracks; //subtrees without a solution before the snapshot
+
+    Checkpoint(Engine engine, byte[] root, int[] path, byte[] board, long nodes, long backtracks) {
+        this.engine = engine;
+        this.root = root;
+        this.path = path;
+        this.board = board;
+        this.nodes = nodes;
+        this.backtracks = backtracks;
+    }
+
+    /**
+     * Gets the values of a board
+     * @param board board to read
+     * @return      value of each cell in row major order, 0 for empty cells
+     */
+    static byte[] values(Board board) {
+        byte[] values = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            values[cell] = (byte) board.getBoard()[cell / 9][cell % 9].getVal();
+        }
+        return values;
+    }
+
+    /**
+     * Writes this checkpoint
+     * @param out   where to write
+     * @throws IOException  if writing fails
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(engine.ordinal());
+        writeValues(out, root);
+        out.writeByte(path.length);
+        for (int index : path) {
+            out.writeByte(index);
+        }
+        writeValues(out, board);
+        out.writeLong(nodes);
+        out.writeLong(backtracks);
+    }
+
+    /**
+     * Reads a checkpoint
+     * @param in    where to read from
+     * @return      the checkpoint
+     * @throws IOException  if reading fails or the data is not a checkpoint
+     */
+    static Checkpoint read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a checkpoint file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported checkpoint version " + version);
+        }
+        int engine = in.readUnsignedByte();
+        if (engine >= Engine.values().length) {
+            throw new IOException("unknown engine " + engine);
+        }
+        byte[] root = readValues(in);
+        int[] path = new int[in.readUnsignedByte()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = in.readUnsignedByte();
+        }
+        byte[] board = readValues(in);
+        return new Checkpoint(Engine.values()[engine], root, path, board, in.readLong(), in.readLong());
+    }
+
+    /**
+     * Writes 81 values as 41 bytes, high nibble first
+     * @param out       where to write
+     * @param values    values from 0 to 9
+     * @throws IOException  if writing fails
+     */
+    static void writeValues(DataOutput out, byte[] values) throws IOException {
+        for (int cell = 0; cell < 81; cell += 2) {
+            out.writeByte(values[cell] << 4 | (cell + 1 < 81 ? values[cell + 1] : 0));
+        }
+    }
+
+    /**
+     * Reads 81 values written by writeValues
+     * @param in    where to read from
+     * @return      values from 0 to 9
+     * @throws IOException  if reading fails or a value is out of range
+     */
+    static byte[] readValues(DataInput in) throws IOException {
+        byte[] values = new byte[81];
+        for (int cell = 0; cell < 81; cell += 2) {
+            int packed = in.readUnsignedByte();
+            values[cell] = (byte) (packed >>> 4);
+            if (cell + 1 < 81) {
+                values[cell + 1] = (byte) (packed & 0xF);
+            }
+        }
+        for (byte value : values) {
+            if (value > 9) {
+                throw new IOException("corrupt checkpoint, cell value " + value);
+            }
+        }
+        return values;
+    }
+
+    Engine getEngine() {
+        return this.engine;
+    }
+
+    byte[] getRoot() {
+        return this.root;
+    }
+
+    int[] getPath() {
+        return this.path;
+    }
+
+    byte[] getBoard() {
+        return this.board;
+    }
+
+    long getNodes() {
+        return this.nodes;
+    }
+
+    long getBacktracks() {
+        return this.backtracks;
+    }
+}
@@ -0,0 +1,130 @@
+package solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes checkpoints to a file on a background thread, so the search only pays for taking the snapshot.
+ * If the search saves faster than the disk keeps up, snapshots that were never written are replaced by newer ones.
+ * Each write goes to a temporary file that is then moved over the checkpoint, so a crash mid write keeps the old one.
+ * @author Will Mackin
+ */
+
+final class CheckpointWriter {
+    private final Path file; //checkpoint file
+    private final Path temp; //file written before being moved over the checkpoint
+    private final AtomicReference<Checkpoint> pending = new AtomicReference<>(); //newest snapshot not yet written
+    private final ExecutorService writer; //background writing thread
+    private volatile IOException error; //last write failure, null if none
+
+    /**
+     * Makes a writer, checking straight away that files can be written next to the checkpoint
+     * @param file  checkpoint file
+     * @throws IOException  if the temporary file cannot be written
+     */
+    CheckpointWriter(Path file) throws IOException {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.newOutputStream(temp).close();
+        Files.delete(temp);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads a checkpoint file
+     * @param file  file to read
+     * @return      the checkpoint
+     * @throws IOException  if the file cannot be read or is not a checkpoint
+     */
+    static Checkpoint load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return Checkpoint.read(in);
+        }
+    }
+
+    /**
+     * Queues a snapshot to be written, returning straight away
+     * @param checkpoint    snapshot of the search
+     */
+    void save(Checkpoint checkpoint) {
+        if (pending.getAndSet(checkpoint) == null) {
+            writer.execute(this::flush);
+        }
+    }
+
+    /**
+     * Drops any unwritten snapshot and deletes the checkpoint file once earlier writes are done,
+     * used when a search finishes and there is nothing left to resume
+     */
+    void clear() {
+        pending.set(null);
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException e) {
+                error = e;
+            }
+        });
+    }
+
+    /**
+     * Writes the newest pending snapshot, part of the background thread
+     */
+    private void flush() {
+        Checkpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                checkpoint.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Waits for queued writes to finish and stops the background thread
+     * @throws IOException  the last write failure, if any write failed
+     */
+    void close() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Error accessor
+     * @return  last write failure, or null if every write succeeded
+     */
+    IOException getError() {
+        return this.error;
+    }
+}
@@ -0,0 +1,564 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Grades classic puzzles by solving them with human techniques only, always using the easiest one that
+ * makes progress. Candidates are kept as bitmasks in arrays that are reused for every puzzle, so a grader
+ * allocates nothing while solving. The pair and X-wing searches also need the cells of each unit where each value is
+ * still possible. These are rebuilt only after values have been placed, and otherwise carried from pass to pass and
+ * updated as candidates are eliminated. A grader is not thread safe, use one per thread.
+ * @author Will Mackin
+ */
+
+public class DifficultyGrader {
+    private static final int ALL_VALUES = 0x3FE; //bits 1 through 9
+    private static final int[][] UNITS = CandidateKernel.UNITS; //rows, then columns, then squares
+    private static final int[][] PEERS = makePeers(); //the 20 peers of each cell
+    private static final int[][] UNITS_OF = makeUnitsOf(); //row, column and square unit index of each cell
+    private static final int[][] POSITION_OF = makePositionOf(); //bit of each cell's position within its row, column and square
+    private static final int[][] INTERSECTIONS = makeIntersections(); //cells where a square meets a row or column
+
+    private final int[] values = new int[81]; //placed values, 0 when empty
+    private final int[] candidates = new int[81]; //possible values of each empty cell, 0 once placed
+    private final int[] positions = new int[27 * 10]; //positions within unit u where value v is possible, at u * 10 + v
+    private int empty; //number of empty cells
+    private boolean stale; //true if values were placed since positions was last rebuilt
+    private boolean contradiction; //true if the puzzle has been shown to have no solution
+
+    /**
+     * Makes a grader with its own reusable candidate arrays
+     */
+    public DifficultyGrader() {
+    }
+
+    /**
+     * The result of grading one puzzle
+     */
+    public static final class Grade {
+        private final Technique hardest; //hardest technique needed
+        private final int score; //total weight of every step
+        private final int steps; //number of techniques applied
+        private final boolean valid; //false if the puzzle has no solution
+
+        private Grade(Technique hardest, int score, int steps, boolean valid) {
+            this.hardest = hardest;
+            this.score = score;
+            this.steps = steps;
+            this.valid = valid;
+        }
+
+        /**
+         * Hardest technique accessor
+         * @return  hardest technique needed, GUESS if the techniques ran out, null if the puzzle was already full
+         */
+        public Technique getHardest() {
+            return this.hardest;
+        }
+
+        /**
+         * Score accessor
+         * @return  sum of the weights of every technique applied, plus the guess weight if one is needed
+         */
+        public int getScore() {
+            return this.score;
+        }
+
+        /**
+         * Steps accessor
+         * @return  number of techniques applied
+         */
+        public int getSteps() {
+            return this.steps;
+        }
+
+        /**
+         * Checks if the puzzle can only be finished by guessing
+         * @return  true if guessing is unavoidable, otherwise false
+         */
+        public boolean isGuessRequired() {
+            return this.hardest == Technique.GUESS;
+        }
+
+        /**
+         * Checks if the puzzle was consistent while grading
+         * @return  false if the givens conflict or the techniques found a contradiction, otherwise true
+         */
+        public boolean isValid() {
+            return this.valid;
+        }
+
+        /**
+         * Gives a string representation of this grade
+         * @return  grade as string
+         */
+        @Override
+        public String toString() {
+            return valid ? hardest + " " + score : "INVALID";
+        }
+    }
+
+    /**
+     * Grades a puzzle written as 81 characters in row major order, with 1 to 9 for givens and anything else for empty cells
+     * @param puzzle    puzzle to grade
+     * @return          grade of the puzzle
+     */
+    public Grade grade(CharSequence puzzle) {
+        if (puzzle.length() != 81) {
+            throw new IllegalArgumentException("puzzle must have 81 cells: " + puzzle.length());
+        }
+        clear();
+        for (int cell = 0; cell < 81; cell++) {
+            char ch = puzzle.charAt(cell);
+            if (ch >= '1' && ch <= '9') {
+                place(cell, ch - '0');
+            }
+        }
+        return run();
+    }
+
+    /**
+     * Grades the numbers placed on a classic board
+     * @param board board to grade
+     * @return      grade of the puzzle
+     */
+    public Grade grade(Board board) {
+        clear();
+        for (int cell = 0; cell < 81; cell++) {
+            int val = board.getBoard()[cell / 9][cell % 9].getVal();
+            if (val != 0) {
+                place(cell, val);
+            }
+        }
+        return run();
+    }
+
+    /**
+     * Grades many puzzles on every available core
+     * @param puzzles   puzzles written as 81 characters each
+     * @return          grade of each puzzle, in the same order
+     */
+    public static List<Grade> gradeAll(List<? extends CharSequence> puzzles) {
+        Grade[] grades = new Grade[puzzles.size()];
+        ThreadLocal<DifficultyGrader> graders = ThreadLocal.withInitial(DifficultyGrader::new);
+        IntStream.range(0, grades.length).parallel().forEach(i -> grades[i] = graders.get().grade(puzzles.get(i)));
+        return Arrays.asList(grades);
+    }
+
+    /**
+     * Empties the grid before a new puzzle
+     */
+    private void clear() {
+        Arrays.fill(values, 0);
+        Arrays.fill(candidates, ALL_VALUES);
+        stale = true;
+        empty = 81;
+        contradiction = false;
+    }
+
+    /**
+     * Applies the easiest technique that makes progress until the grid is full or nothing applies
+     * @return  grade of the puzzle
+     */
+    private Grade run() {
+        Technique hardest = null;
+        int score = 0;
+        int steps = 0;
+        while (empty > 0 && !contradiction) {
+            Technique used;
+            int count; //singles are placed a sweep at a time, and each one counts as a step
+            if ((count = hiddenSingles()) > 0) {
+                used = Technique.HIDDEN_SINGLE;
+            }
+            else if (contradiction) {
+                break;
+            }
+            else if ((count = nakedSingles()) > 0) {
+                used = Technique.NAKED_SINGLE;
+            }
+            else {
+                count = 1;
+                if (lockedCandidates()) {
+                    used = Technique.LOCKED_CANDIDATES;
+                }
+                else if (nakedPair()) {
+                    used = Technique.NAKED_PAIR;
+                }
+                else if (hiddenPair()) {
+                    used = Technique.HIDDEN_PAIR;
+                }
+                else if (xWing()) {
+                    used = Technique.X_WING;
+                }
+                else {
+                    used = Technique.GUESS;
+                }
+            }
+            score += used.getWeight() * count;
+            if (hardest == null || used.compareTo(hardest) > 0) {
+                hardest = used;
+            }
+            if (used == Technique.GUESS) {
+                break;
+            }
+            steps += count;
+        }
+        return new Grade(hardest, score, steps, !contradiction);
+    }
+
+    /**
+     * Places a value and removes it from the candidates of the cell's peers
+     * @param cell  cell index
+     * @param val   value to place
+     */
+    private void place(int cell, int val) {
+        int bit = 1 << val;
+        if ((candidates[cell] & bit) == 0) {
+            contradiction = true;
+        }
+        values[cell] = val;
+        candidates[cell] = 0;
+        empty--;
+        stale = true;
+        for (int peer : PEERS[cell]) {
+            if (values[peer] == val) {
+                contradiction = true;
+            }
+            else if ((candidates[peer] & bit) != 0) {
+                candidates[peer] &= ~bit;
+                if (candidates[peer] == 0 && values[peer] == 0) {
+                    contradiction = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes candidates from a cell
+     * @param cell  cell index
+     * @param mask  values to remove
+     * @return      true if any candidate was removed
+     */
+    private boolean eliminate(int cell, int mask) {
+        if ((candidates[cell] & mask) == 0) {
+            return false;
+        }
+        if (!stale) {
+            drop(cell, candidates[cell] & mask);
+        }
+        candidates[cell] &= ~mask;
+        if (candidates[cell] == 0) {
+            contradiction = true;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the positions of every value in every unit from the candidates, if values were placed since the last rebuild
+     */
+    private void updatePositions() {
+        if (!stale) {
+            return;
+        }
+        Arrays.fill(positions, 0);
+        for (int cell = 0; cell < 81; cell++) {
+            int[] units = UNITS_OF[cell];
+            int[] position = POSITION_OF[cell];
+            int mask = candidates[cell];
+            while (mask != 0) {
+                int val = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                positions[units[0] * 10 + val] |= position[0];
+                positions[units[1] * 10 + val] |= position[1];
+                positions[units[2] * 10 + val] |= position[2];
+            }
+        }
+        stale = false;
+    }
+
+    /**
+     * Removes a cell from the positions of values in its row, column and square
+     * @param cell  cell index
+     * @param mask  candidates being eliminated from the cell
+     */
+    private void drop(int cell, int mask) {
+        int[] units = UNITS_OF[cell];
+        int[] position = POSITION_OF[cell];
+        while (mask != 0) {
+            int val = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            positions[units[0] * 10 + val] &= ~position[0];
+            positions[units[1] * 10 + val] &= ~position[1];
+            positions[units[2] * 10 + val] &= ~position[2];
+        }
+    }
+
+    /**
+     * Sweeps every unit once, placing each value that has only one possible cell, also noticing values with no possible cell
+     * @return  number of values placed
+     */
+    private int hiddenSingles() {
+        int count = 0;
+        for (int[] unit : UNITS) {
+            int once = 0;
+            int twice = 0;
+            int placed = 0;
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+                placed |= 1 << values[cell];
+            }
+            if (((once | placed) & ALL_VALUES) != ALL_VALUES) {
+                contradiction = true;
+                return count;
+            }
+            int unique = once & ~twice;
+            for (int i = 0; unique != 0 && i < 9; i++) {
+                int hit = candidates[unit[i]] & unique;
+                if (hit != 0) {
+                    int val = Integer.numberOfTrailingZeros(hit);
+                    place(unit[i], val);
+                    unique &= ~(1 << val);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sweeps every cell once, placing the value of each cell that has only one candidate
+     * @return  number of values placed
+     */
+    private int nakedSingles() {
+        int count = 0;
+        for (int cell = 0; cell < 81; cell++) {
+            if (values[cell] == 0 && Integer.bitCount(candidates[cell]) == 1) {
+                place(cell, Integer.numberOfTrailingZeros(candidates[cell]));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds values that are confined to the overlap of a square and a line within one of them,
+     * and removes them from the rest of the other
+     * @return  true if any candidate was removed
+     */
+    private boolean lockedCandidates() {
+        for (int[] overlap : INTERSECTIONS) {
+            int shared = candidates[overlap[0]] | candidates[overlap[1]] | candidates[overlap[2]];
+            if (shared == 0) {
+                continue;
+            }
+            int squareRest = 0;
+            int lineRest = 0;
+            for (int i = 3; i < 9; i++) {
+                squareRest |= candidates[overlap[i]];
+                lineRest |= candidates[overlap[i + 6]];
+            }
+            int pointing = shared & ~squareRest; //only in the overlap within the square, so not in the rest of the line
+            int claiming = shared & ~lineRest; //only in the overlap within the line, so not in the rest of the square
+            if ((pointing | claiming) == 0) {
+                continue;
+            }
+            boolean progress = false;
+            for (int i = 3; i < 9; i++) {
+                progress |= eliminate(overlap[i + 6], pointing);
+                progress |= eliminate(overlap[i], claiming);
+            }
+            if (progress) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds two cells of a unit with the same two candidates and removes those values from the rest of the unit
+     * @return  true if any candidate was removed
+     */
+    private boolean nakedPair() {
+        for (int[] unit : UNITS) {
+            for (int i = 0; i < 9; i++) {
+                int mask = candidates[unit[i]];
+                if (Integer.bitCount(mask) != 2) {
+                    continue;
+                }
+                for (int j = i + 1; j < 9; j++) {
+                    if (candidates[unit[j]] == mask) {
+                        boolean progress = false;
+                        for (int k = 0; k < 9; k++) {
+                            if (k != i && k != j) {
+                                progress |= eliminate(unit[k], mask);
+                            }
+                        }
+                        if (progress) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds two values confined to the same two cells of a unit and removes every other candidate from those cells
+     * @return  true if any candidate was removed
+     */
+    private boolean hiddenPair() {
+        updatePositions();
+        for (int u = 0; u < 27; u++) {
+            int[] unit = UNITS[u];
+            int base = u * 10;
+            for (int a = 1; a <= 9; a++) {
+                int pair = positions[base + a];
+                if (Integer.bitCount(pair) != 2) {
+                    continue;
+                }
+                for (int b = a + 1; b <= 9; b++) {
+                    if (positions[base + b] == pair) {
+                        int keep = (1 << a) | (1 << b);
+                        int first = Integer.numberOfTrailingZeros(pair);
+                        int second = 31 - Integer.numberOfLeadingZeros(pair);
+                        boolean progress = eliminate(unit[first], ~keep & ALL_VALUES);
+                        progress |= eliminate(unit[second], ~keep & ALL_VALUES);
+                        if (progress) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a value confined to the same two columns in two rows, or the same two rows in two columns,
+     * and removes it from the rest of those columns or rows
+     * @return  true if any candidate was removed
+     */
+    private boolean xWing() {
+        updatePositions();
+        for (int base = 0; base <= 9; base += 9) {
+            int cover = 9 - base; //columns when the base lines are rows, rows when they are columns
+            for (int val = 1; val <= 9; val++) {
+                int bit = 1 << val;
+                for (int a = 0; a < 9; a++) {
+                    int pair = positions[(base + a) * 10 + val];
+                    if (Integer.bitCount(pair) != 2) {
+                        continue;
+                    }
+                    for (int b = a + 1; b < 9; b++) {
+                        if (positions[(base + b) * 10 + val] != pair) {
+                            continue;
+                        }
+                        boolean progress = false;
+                        int lines = pair;
+                        while (lines != 0) {
+                            int[] crossing = UNITS[cover + Integer.numberOfTrailingZeros(lines)];
+                            lines &= lines - 1;
+                            for (int i = 0; i < 9; i++) {
+                                if (i != a && i != b) {
+                                    progress |= eliminate(crossing[i], bit);
+                                }
+                            }
+                        }
+                        if (progress) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a unit holds a cell
+     * @param cell  cell index
+     * @param unit  unit index
+     * @return      true if the cell is in the unit
+     */
+    private static boolean inUnit(int cell, int unit) {
+        return UNITS_OF[cell][unit / 9] == unit;
+    }
+
+    /**
+     * Finds the units of every cell
+     * @return  row, column and square unit index of each cell
+     */
+    private static int[][] makeUnitsOf() {
+        int[][] unitsOf = new int[81][3];
+        for (int unit = 0; unit < 27; unit++) {
+            for (int cell : UNITS[unit]) {
+                unitsOf[cell][unit / 9] = unit;
+            }
+        }
+        return unitsOf;
+    }
+
+    /**
+     * Finds where every cell sits within each of its units
+     * @return  bit of the cell's index within its row, column and square unit
+     */
+    private static int[][] makePositionOf() {
+        int[][] positionOf = new int[81][3];
+        for (int unit = 0; unit < 27; unit++) {
+            for (int i = 0; i < 9; i++) {
+                positionOf[UNITS[unit][i]][unit / 9] = 1 << i;
+            }
+        }
+        return positionOf;
+    }
+
+    /**
+     * Copies the classic peer table
+     * @return  peers of every cell
+     */
+    private static int[][] makePeers() {
+        int[][] peers = new int[81][];
+        for (int cell = 0; cell < 81; cell++) {
+            peers[cell] = Variant.CLASSIC.getPeers(cell);
+        }
+        return peers;
+    }
+
+    /**
+     * Lists the cells where each square meets each of the three rows and three columns that pass through it
+     * @return  for each overlap, the 3 shared cells, then the other 6 cells of the square, then the other 6 cells of the line
+     */
+    private static int[][] makeIntersections() {
+        int[][] overlaps = new int[54][];
+        int n = 0;
+        for (int square = 0; square < 9; square++) {
+            for (int k = 0; k < 6; k++) {
+                int line = k < 3 ? (square / 3) * 3 + k : 9 + (square % 3) * 3 + (k - 3);
+                int[] overlap = new int[15];
+                int shared = 0;
+                int squareOnly = 3;
+                int lineOnly = 9;
+                for (int cell : UNITS[18 + square]) {
+                    if (inUnit(cell, line)) {
+                        overlap[shared++] = cell;
+                    }
+                    else {
+                        overlap[squareOnly++] = cell;
+                    }
+                }
+                for (int cell : UNITS[line]) {
+                    if (!inUnit(cell, 18 + square)) {
+                        overlap[lineOnly++] = cell;
+                    }
+                }
+                overlaps[n++] = overlap;
+            }
+        }
+        return overlaps;
+    }
+
+}
@@ -0,0 +1,13 @@
+package solver;
+
+/**
+ * Strategies the model can use to solve a puzzle
+ * @author Will Mackin
+ */
+
+public enum Engine {
+    PROPAGATION, //placing singles alone fills the board
+    BACKTRACKING, //branch on the first empty cell
+    MOST_CONSTRAINED, //branch on the empty cell with the fewest possibilities
+    STORE //the solution was found in a solution store without solving
+}
@@ -0,0 +1,32 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for choosing how to solve a puzzle
+ * @author Will Mackin
+ */
+
+@Name("solver.EngineSelection")
+@Label("Engine Selection")
+@Category("Sudoku Solver")
+@Description("The engine chosen to solve a puzzle")
+final class EngineSelectionEvent extends jdk.jfr.Event {
+    @Label("Engine")
+    String engine; //name of the chosen engine
+
+    @Label("Clues")
+    int clues; //values given before solving
+
+    @Label("Empty Cells")
+    int empty; //cells left empty by the first propagation pass
+
+    @Label("Candidate Entropy")
+    double entropy; //bits needed to pick a possibility for every empty cell
+
+    @Label("Portfolio")
+    boolean portfolio; //true if engines were raced instead of using the chosen one
+}
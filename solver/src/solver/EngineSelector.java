@@ -0,0 +1,64 @@
+package solver;
+
+/**
+ * Chooses an engine for a puzzle from cheap features of its board after the first propagation pass
+ * @author Will Mackin
+ */
+
+public final class EngineSelector {
+    public static final double ENTROPY_THRESHOLD = 40; //bits of candidate entropy above which branching order pays off
+    public static final int MIN_CLUES = 22; //clue counts below this are treated as hard whatever the entropy
+
+    private EngineSelector() {
+    }
+
+    /**
+     * Chooses the engine for a board
+     * @param board board after propagation
+     * @param clues number of values given before solving
+     * @return      engine to solve the rest of the board with
+     */
+    public static Engine select(Board board, int clues) {
+        if (countEmpty(board) == 0) {
+            return Engine.PROPAGATION;
+        }
+        if (clues < MIN_CLUES || candidateEntropy(board) > ENTROPY_THRESHOLD) {
+            return Engine.MOST_CONSTRAINED;
+        }
+        return Engine.BACKTRACKING;
+    }
+
+    /**
+     * Counts the cells without a value
+     * @param board board to count
+     * @return      number of empty cells
+     */
+    public static int countEmpty(Board board) {
+        int empty = 0;
+        for (Node[] nodes : board.getBoard()) {
+            for (Node n : nodes) {
+                if (n.getVal() == 0) {
+                    empty++;
+                }
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Measures how open the board still is as the bits needed to pick a possibility for every empty cell
+     * @param board board to measure
+     * @return      sum of log2 of the number of possibilities of each empty cell
+     */
+    public static double candidateEntropy(Board board) {
+        double entropy = 0;
+        for (Node[] nodes : board.getBoard()) {
+            for (Node n : nodes) {
+                if (n.getVal() == 0 && n.getPossibilities().size() > 1) {
+                    entropy += Math.log(n.getPossibilities().size()) / Math.log(2);
+                }
+            }
+        }
+        return entropy;
+    }
+}
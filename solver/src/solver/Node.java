@@ -141,6 +141,16 @@ public class Node {
         }
     }
 
+    /**
+     * Removes every possibility that is not in a bitmask
+     * @param mask  bitmask with bit d set for each value d to keep
+     */
+    public void retainPossibilities(int mask) {
+        if (this.value == 0) {
+            possibleValues.removeIf(val -> (mask & (1 << val)) == 0);
+        }
+    }
+
     /**
      * Gives a string representation of this node
      * @return  node as string
@@ -0,0 +1,23 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for placing singles on one board until no more can be found
+ * @author Will Mackin
+ */
+
+@Name("solver.Propagation")
+@Label("Propagation")
+@Category("Sudoku Solver")
+@Description("Placing naked and hidden singles on one board")
+final class PropagationEvent extends jdk.jfr.Event {
+    @Label("Layer")
+    int layer; //level of recursion, 0 for the model's board
+
+    @Label("Placed")
+    int placed; //values placed during the pass
+}
@@ -0,0 +1,78 @@
+package solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Publishes parsed boards to a solving pipeline. Each subscriber gets a bounded buffer, and publishing blocks
+ * while a buffer is full, so a slow pipeline holds back parsing instead of boards piling up in memory.
+ * @author Will Mackin
+ */
+
+public class PuzzlePublisher extends SubmissionPublisher<Board> {
+    public static final int DEFAULT_BUFFER = 256; //default number of parsed boards waiting for each subscriber
+
+    private long skipped; //lines that were not puzzles
+
+    /**
+     * Makes a publisher that delivers boards on the common pool with the default buffer
+     */
+    public PuzzlePublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER);
+    }
+
+    /**
+     * Makes a publisher
+     * @param executor      runs the delivery of boards to subscribers
+     * @param bufferSize    most parsed boards waiting for each subscriber, rounded up to a power of two
+     */
+    public PuzzlePublisher(Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+    }
+
+    /**
+     * Parses and publishes one puzzle, waiting while the pipeline is full
+     * @param puzzle    81 characters in row major order
+     */
+    public void publish(CharSequence puzzle) {
+        submit(Board.parse(puzzle));
+    }
+
+    /**
+     * Parses and publishes every puzzle from a reader, one per line, then closes this publisher.
+     * Blank lines, lines starting with # and lines without 81 cells are skipped.
+     * @param in    puzzles, one per line
+     */
+    public void publishAll(BufferedReader in) {
+        try {
+            String line;
+            while ((line = in.readLine()) != null && !isClosed()) {
+                line = line.trim();
+                if (line.length() != 81) {
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        skipped++;
+                    }
+                    continue;
+                }
+                publish(line);
+            }
+            close();
+        }
+        catch (IOException e) {
+            closeExceptionally(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Skipped accessor
+     * @return  number of lines that were not blank or comments but did not have 81 cells
+     */
+    public long getSkipped() {
+        return this.skipped;
+    }
+}
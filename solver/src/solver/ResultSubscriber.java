@@ -0,0 +1,177 @@
+package solver;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * End of a solving pipeline that hands each result to a callback and keeps statistics.
+ * Results are requested a batch at a time, and the next batch is only requested once the callback has
+ * handled half of the current one, so a slow callback slows the whole pipeline.
+ * @author Will Mackin
+ */
+
+public class ResultSubscriber implements Flow.Subscriber<SolveResult> {
+    private final Consumer<SolveResult> callback; //handles each result
+    private final int batch; //results requested at a time
+    private final CountDownLatch finished = new CountDownLatch(1); //released when the pipeline completes or fails
+
+    private Flow.Subscription subscription; //subscription to the solving stage
+    private int outstanding; //results requested but not yet received
+    private volatile long solved; //puzzles solved
+    private volatile long unsolvable; //puzzles whose search found no solution
+    private volatile long invalid; //puzzles whose givens conflict
+    private volatile long totalNanos; //solving time of every result
+    private volatile long maxNanos; //longest solving time of one result
+    private volatile long startNanos; //time of subscription
+    private volatile long endNanos; //time of completion
+    private volatile Throwable error; //failure that ended the pipeline, null if none
+
+    /**
+     * Makes a subscriber
+     * @param callback  handles each result, called on one thread at a time
+     * @param batch     results to request at a time
+     */
+    public ResultSubscriber(Consumer<SolveResult> callback, int batch) {
+        if (batch < 1) {
+            throw new IllegalArgumentException("batch must be positive: " + batch);
+        }
+        this.callback = callback;
+        this.batch = batch;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        this.startNanos = System.nanoTime();
+        this.outstanding = batch;
+        subscription.request(batch);
+    }
+
+    @Override
+    public void onNext(SolveResult result) {
+        callback.accept(result);
+        switch (result.getStatus()) {
+            case SOLVED:
+                solved++;
+                break;
+            case NO_SOLUTION:
+                unsolvable++;
+                break;
+            case INVALID:
+                invalid++;
+                break;
+        }
+        totalNanos += result.getNanos();
+        maxNanos = Math.max(maxNanos, result.getNanos());
+        if (--outstanding <= batch / 2) {
+            subscription.request(batch - outstanding);
+            outstanding = batch;
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.error = throwable;
+        this.endNanos = System.nanoTime();
+        finished.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        this.endNanos = System.nanoTime();
+        finished.countDown();
+    }
+
+    /**
+     * Waits for the pipeline to finish
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Stops the pipeline early
+     */
+    public void cancel() {
+        subscription.cancel();
+        finished.countDown();
+    }
+
+    /**
+     * Solved accessor
+     * @return  number of puzzles solved
+     */
+    public long getSolved() {
+        return this.solved;
+    }
+
+    /**
+     * Unsolvable accessor
+     * @return  number of puzzles whose search found no solution
+     */
+    public long getUnsolvable() {
+        return this.unsolvable;
+    }
+
+    /**
+     * Invalid accessor
+     * @return  number of puzzles whose givens conflict
+     */
+    public long getInvalid() {
+        return this.invalid;
+    }
+
+    /**
+     * Gets the number of results received
+     * @return  total of solved, unsolvable and invalid puzzles
+     */
+    public long getCount() {
+        return solved + unsolvable + invalid;
+    }
+
+    /**
+     * Max time accessor
+     * @return  longest time spent solving one puzzle, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * Gets the mean time spent solving one puzzle
+     * @return  mean solving time in nanoseconds, 0 if there were no results
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Gets the rate results arrived at, from subscription until completion or now
+     * @return  results per second
+     */
+    public double getThroughput() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return end == startNanos ? 0 : getCount() * 1e9 / (end - startNanos);
+    }
+
+    /**
+     * Error accessor
+     * @return  failure that ended the pipeline, or null if it completed normally
+     */
+    public Throwable getError() {
+        return this.error;
+    }
+
+    /**
+     * Gives a string representation of the statistics
+     * @return  statistics as string
+     */
+    @Override
+    public String toString() {
+        return String.format("solved=%d unsolvable=%d invalid=%d mean=%.1fus max=%.1fus throughput=%.0f/s",
+                solved, unsolvable, invalid, getMeanNanos() / 1e3, maxNanos / 1e3, getThroughput());
+    }
+}
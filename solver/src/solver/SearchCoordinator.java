@@ -0,0 +1,446 @@
+package solver;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Counts the solutions of a classic board with SearchWorkers connected over TCP.
+ * The top of the board's successor tree is expanded into units, each a list of boards, which idle workers ask for.
+ * When the queue runs dry while workers are still busy, the worker holding the oldest unit is asked to give half of
+ * its unexplored boards away as a new unit. If a worker disconnects, its unit goes back on the queue; the solutions
+ * it already reported are kept, since a unit only ever holds boards that have not been counted.
+ * Messages to a worker are queued and written by a thread of its own, so a slow worker never holds up the others.
+ * @author Will Mackin
+ */
+
+public class SearchCoordinator implements Closeable {
+    public static final int DEFAULT_UNITS = 64; //units to expand the top of the tree into
+
+    private final Deque<Unit> queue = new ArrayDeque<>(); //units waiting for a worker
+    private final Map<Long, Unit> active = new LinkedHashMap<>(); //units being searched, oldest first
+    private final Deque<Connection> idle = new ArrayDeque<>(); //workers waiting for a unit
+    private final List<Connection> connections = new ArrayList<>(); //connected workers
+    private final CountDownLatch finished = new CountDownLatch(1); //released once every unit is searched
+    private ServerSocket server; //accepts worker connections
+    private long nextId; //id of the next unit
+    private long count; //solutions reported so far
+    private byte[] solution; //first solution reported, null if none yet
+    private long steals; //steal requests sent
+    private long reassigned; //units put back on the queue after their worker disconnected
+    private boolean done; //true once every unit is searched
+
+    /**
+     * Makes a coordinator, expanding the board breadth first until there are enough units or nothing left to expand
+     * @param board         classic board to count the solutions of
+     * @param targetUnits   units to expand into, more than the number of workers so they start evenly loaded
+     */
+    public SearchCoordinator(Board board, int targetUnits) {
+        if (targetUnits < 1) {
+            throw new IllegalArgumentException("need at least one unit: " + targetUnits);
+        }
+        Deque<Board> level = new ArrayDeque<>();
+        if (board.isValid()) {
+            level.add(board);
+        }
+        boolean expanded = true;
+        while (expanded && level.size() < targetUnits) {
+            expanded = false;
+            Deque<Board> next = new ArrayDeque<>();
+            for (Board b : level) {
+                if (EngineSelector.countEmpty(b) == 0) {
+                    next.add(b);
+                    continue;
+                }
+                for (Board child : b.getSuccessors()) {
+                    if (child.isValid()) {
+                        next.add(child);
+                    }
+                }
+                expanded = true;
+            }
+            level = next;
+        }
+        for (Board b : level) {
+            List<byte[]> boards = new ArrayList<>(1);
+            boards.add(Checkpoint.values(b));
+            queue.add(new Unit(nextId++, boards));
+        }
+        if (queue.isEmpty()) {
+            done = true;
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Starts accepting workers on the loopback address
+     * @param port  port to listen on, 0 for any free port
+     * @throws IOException  if the port cannot be bound
+     */
+    public void start(int port) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    socket.setTcpNoDelay(true);
+                    Connection connection = new Connection(socket);
+                    synchronized (this) {
+                        connections.add(connection);
+                    }
+                    Thread reader = new Thread(connection::read, "sudoku-coordinator-" + socket.getPort());
+                    reader.setDaemon(true);
+                    reader.start();
+                }
+                catch (IOException e) {
+                    //the server socket was closed
+                }
+            }
+        }, "sudoku-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Port accessor
+     * @return  port workers connect to
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Waits until every unit has been searched
+     * @return  number of solutions
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long await() throws InterruptedException {
+        finished.await();
+        synchronized (this) {
+            return count;
+        }
+    }
+
+    /**
+     * Solution accessor
+     * @return  the first solution reported, or null if none has been
+     */
+    public synchronized Board getSolution() {
+        return solution == null ? null : SearchProtocol.toBoard(solution);
+    }
+
+    /**
+     * Steals accessor
+     * @return  number of times a busy worker was asked to give away part of its unit
+     */
+    public synchronized long getSteals() {
+        return this.steals;
+    }
+
+    /**
+     * Reassigned accessor
+     * @return  number of units put back on the queue after their worker disconnected
+     */
+    public synchronized long getReassigned() {
+        return this.reassigned;
+    }
+
+    /**
+     * Stops accepting workers and disconnects the ones still connected
+     */
+    @Override
+    public void close() {
+        List<Connection> open;
+        synchronized (this) {
+            open = new ArrayList<>(connections);
+        }
+        try {
+            if (server != null) {
+                server.close();
+            }
+        }
+        catch (IOException e) {
+            //nothing left to release
+        }
+        for (Connection connection : open) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Parks a worker that asked for a unit until one is free
+     * @param connection    worker asking
+     */
+    private synchronized void onRequest(Connection connection) {
+        if (done) {
+            connection.sendDone();
+        }
+        else {
+            idle.add(connection);
+            dispatch();
+        }
+    }
+
+    /**
+     * Records a finished unit
+     * @param connection    worker that finished it
+     * @param id            unit id
+     * @param solutions     solutions found since the unit was handed out or last split
+     * @param first         first of those solutions, or null for none
+     */
+    private synchronized void onResult(Connection connection, long id, long solutions, byte[] first) {
+        active.remove(id);
+        connection.unit = null;
+        connection.stealPending = false;
+        record(solutions, first);
+        if (queue.isEmpty() && active.isEmpty()) {
+            done = true;
+            for (Connection waiting : idle) {
+                waiting.sendDone();
+            }
+            idle.clear();
+            finished.countDown();
+        }
+        else {
+            dispatch();
+        }
+    }
+
+    /**
+     * Shrinks a unit to the boards its worker kept and hands the boards it gave away to an idle worker
+     * @param connection    worker that split its unit
+     * @param id            unit id
+     * @param solutions     solutions found since the unit was handed out or last split
+     * @param first         first of those solutions, or null for none
+     * @param kept          boards the worker is still searching
+     * @param given         boards given away, empty if the unit was too small to split
+     */
+    private synchronized void onSplit(Connection connection, long id, long solutions, byte[] first, List<byte[]> kept, List<byte[]> given) {
+        connection.stealPending = false;
+        record(solutions, first);
+        Unit unit = active.get(id);
+        if (unit != null) {
+            unit.boards = kept;
+        }
+        if (given.isEmpty()) {
+            connection.unsplittable = true;
+        }
+        else {
+            queue.add(new Unit(nextId++, given));
+        }
+        dispatch();
+    }
+
+    /**
+     * Puts the unit of a disconnected worker back on the queue
+     * @param connection    worker that disconnected
+     */
+    private synchronized void onFailure(Connection connection) {
+        connections.remove(connection);
+        idle.remove(connection);
+        Unit unit = connection.unit;
+        if (unit == null || done) {
+            return;
+        }
+        active.remove(unit.id);
+        unit.owner = null;
+        reassigned++;
+        queue.addFirst(unit);
+        dispatch();
+    }
+
+    /**
+     * Hands queued units to idle workers, then asks busy workers to split until each idle worker has a steal
+     * request out on its behalf. Called after every change to the queue, the idle workers or the busy ones.
+     */
+    private void dispatch() {
+        while (!idle.isEmpty() && !queue.isEmpty()) {
+            assign(idle.poll(), queue.poll());
+        }
+        int pending = 0; //steal requests already out
+        for (Unit unit : active.values()) {
+            if (unit.owner.stealPending) {
+                pending++;
+            }
+        }
+        for (Unit unit : active.values()) {
+            if (pending >= idle.size()) {
+                return;
+            }
+            Connection owner = unit.owner;
+            if (!owner.stealPending && !owner.unsplittable) {
+                owner.stealPending = true;
+                steals++;
+                pending++;
+                owner.sendSteal();
+            }
+        }
+    }
+
+    /**
+     * Hands a unit to a worker
+     * @param connection    worker to search it
+     * @param unit          unit to search
+     */
+    private void assign(Connection connection, Unit unit) {
+        connection.unit = unit;
+        connection.unsplittable = false;
+        unit.owner = connection;
+        active.put(unit.id, unit);
+        connection.sendUnit(unit);
+    }
+
+    /**
+     * Adds reported solutions to the total
+     * @param solutions number of solutions
+     * @param first     first of them, or null for none
+     */
+    private void record(long solutions, byte[] first) {
+        count += solutions;
+        if (solution == null) {
+            solution = first;
+        }
+    }
+
+    /**
+     * Boards handed to one worker at a time
+     */
+    private static final class Unit {
+        private final long id; //unit id
+        private List<byte[]> boards; //values of the boards still to search
+        private Connection owner; //worker searching the unit, null while it is queued
+
+        private Unit(long id, List<byte[]> boards) {
+            this.id = id;
+            this.boards = boards;
+        }
+    }
+
+    /**
+     * One connected worker, with a thread reading its messages and another writing the ones queued for it
+     */
+    private final class Connection {
+        private final Socket socket; //connection to the worker
+        private final DataInputStream in; //messages from the worker
+        private final OutputStream out; //messages to the worker, only written by the writer thread
+        private final ExecutorService writer; //writes queued messages in order
+        private Unit unit; //unit being searched, null if none
+        private boolean stealPending; //true while a steal request is unanswered
+        private boolean unsplittable; //true if the worker's unit was too small to split last time
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = socket.getOutputStream();
+            this.writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sudoku-coordinator-out-" + socket.getPort());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Handles messages until the worker disconnects
+         */
+        private void read() {
+            try {
+                while (true) {
+                    int type = in.readUnsignedByte();
+                    if (type == SearchProtocol.REQUEST) {
+                        onRequest(this);
+                    }
+                    else if (type == SearchProtocol.RESULT) {
+                        long id = in.readLong();
+                        long solutions = in.readLong();
+                        onResult(this, id, solutions, SearchProtocol.readSolution(in));
+                    }
+                    else if (type == SearchProtocol.SPLIT) {
+                        long id = in.readLong();
+                        long solutions = in.readLong();
+                        byte[] first = SearchProtocol.readSolution(in);
+                        List<byte[]> kept = SearchProtocol.readBoards(in);
+                        onSplit(this, id, solutions, first, kept, SearchProtocol.readBoards(in));
+                    }
+                    else {
+                        throw new IOException("unexpected message " + type);
+                    }
+                }
+            }
+            catch (IOException e) {
+                close();
+                onFailure(this);
+            }
+        }
+
+        private void sendUnit(Unit unit) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + unit.boards.size() * 41);
+            try {
+                DataOutputStream message = new DataOutputStream(bytes);
+                message.writeByte(SearchProtocol.UNIT);
+                message.writeLong(unit.id);
+                SearchProtocol.writeBoards(message, unit.boards);
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("cannot encode unit " + unit.id, e);
+            }
+            send(bytes.toByteArray());
+        }
+
+        private void sendSteal() {
+            send(new byte[] {SearchProtocol.STEAL});
+        }
+
+        private void sendDone() {
+            send(new byte[] {SearchProtocol.DONE});
+        }
+
+        /**
+         * Queues a message for the writer thread, which closes the connection if the write fails
+         * so the reader sees the failure
+         * @param message   encoded message
+         */
+        private void send(byte[] message) {
+            try {
+                writer.execute(() -> {
+                    try {
+                        out.write(message);
+                        out.flush();
+                    }
+                    catch (IOException e) {
+                        close();
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                //the connection is closed, the message has nowhere to go
+            }
+        }
+
+        private void close() {
+            writer.shutdownNow();
+            try {
+                socket.close();
+            }
+            catch (IOException e) {
+                //already closed
+            }
+        }
+    }
+}
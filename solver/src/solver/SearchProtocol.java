@@ -0,0 +1,92 @@
+package solver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messages passed between a SearchCoordinator and its SearchWorkers. Each message is a type byte followed by its fields.
+ * Boards are sent as 81 digits packed two to a byte and rebuilt as classic boards on arrival.
+ * @author Will Mackin
+ */
+
+final class SearchProtocol {
+    static final int REQUEST = 1; //worker wants a unit
+    static final int RESULT = 2; //worker finished a unit: id, solution count, first solution
+    static final int SPLIT = 3; //worker split its unit: id, solutions so far, first solution, boards kept, boards given away
+    static final int UNIT = 4; //coordinator hands out a unit: id, boards
+    static final int STEAL = 5; //coordinator asks a busy worker to give away part of its unit
+    static final int DONE = 6; //coordinator has nothing left, the worker can stop
+
+    private SearchProtocol() {
+    }
+
+    /**
+     * Writes a list of boards
+     * @param out       where to write
+     * @param boards    values of each board
+     * @throws IOException  if writing fails
+     */
+    static void writeBoards(DataOutput out, List<byte[]> boards) throws IOException {
+        out.writeInt(boards.size());
+        for (byte[] board : boards) {
+            Checkpoint.writeValues(out, board);
+        }
+    }
+
+    /**
+     * Reads a list of boards written by writeBoards
+     * @param in    where to read from
+     * @return      values of each board
+     * @throws IOException  if reading fails or the data is corrupt
+     */
+    static List<byte[]> readBoards(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("corrupt message, " + size + " boards");
+        }
+        List<byte[]> boards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boards.add(Checkpoint.readValues(in));
+        }
+        return boards;
+    }
+
+    /**
+     * Writes a solution that may not exist
+     * @param out       where to write
+     * @param solution  values of the solution, or null for none
+     * @throws IOException  if writing fails
+     */
+    static void writeSolution(DataOutput out, byte[] solution) throws IOException {
+        out.writeBoolean(solution != null);
+        if (solution != null) {
+            Checkpoint.writeValues(out, solution);
+        }
+    }
+
+    /**
+     * Reads a solution written by writeSolution
+     * @param in    where to read from
+     * @return      values of the solution, or null for none
+     * @throws IOException  if reading fails or the data is corrupt
+     */
+    static byte[] readSolution(DataInput in) throws IOException {
+        return in.readBoolean() ? Checkpoint.readValues(in) : null;
+    }
+
+    /**
+     * Rebuilds a classic board from its values
+     * @param values    value of each cell in row major order, 0 for empty cells
+     * @return          the board
+     */
+    static Board toBoard(byte[] values) {
+        StringBuilder str = new StringBuilder(81);
+        for (byte value : values) {
+            str.append((char) ('0' + value));
+        }
+        return Board.parse(str);
+    }
+}
@@ -0,0 +1,156 @@
+package solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Counts the solutions of units handed out by a SearchCoordinator, usually in a process of its own.
+ * Each unit is searched depth first. Between boards the worker checks for a steal request and, if one came,
+ * gives the shallowest half of its unexplored boards back to the coordinator for an idle worker.
+ * @author Will Mackin
+ */
+
+public class SearchWorker {
+    private static final int POLL_MASK = (1 << 8) - 1; //the connection is checked for a steal request every 256 boards
+
+    private final String host; //coordinator host
+    private final int port; //coordinator port
+    private long units; //units finished
+
+    /**
+     * Makes a worker for a coordinator
+     * @param host  coordinator host
+     * @param port  coordinator port
+     */
+    public SearchWorker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Connects to the coordinator and searches units until it has none left
+     * @return  number of units finished
+     * @throws IOException  if the connection fails
+     */
+    public long work() throws IOException {
+        try (Socket socket = new Socket(host, port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setTcpNoDelay(true);
+            out.writeByte(SearchProtocol.REQUEST);
+            out.flush();
+            while (true) {
+                int type = in.readUnsignedByte();
+                if (type == SearchProtocol.UNIT) {
+                    long id = in.readLong();
+                    if (!search(id, SearchProtocol.readBoards(in), in, out)) {
+                        return units;
+                    }
+                    units++;
+                    out.writeByte(SearchProtocol.REQUEST);
+                    out.flush();
+                }
+                else if (type == SearchProtocol.DONE) {
+                    return units;
+                }
+                else if (type != SearchProtocol.STEAL) {
+                    //steal requests that arrive between units are stale and ignored
+                    throw new IOException("unexpected message " + type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the solutions below the boards of one unit and reports them
+     * @param id        unit id
+     * @param boards    values of the boards to search
+     * @param in        messages from the coordinator
+     * @param out       messages to the coordinator
+     * @return          true if the unit was finished, false if the coordinator said to stop
+     * @throws IOException  if the connection fails
+     */
+    private boolean search(long id, List<byte[]> boards, DataInputStream in, DataOutputStream out) throws IOException {
+        Deque<Board> frontier = new ArrayDeque<>(); //boards still to explore, the next one to search is first
+        for (int i = boards.size() - 1; i >= 0; i--) {
+            Board board = SearchProtocol.toBoard(boards.get(i));
+            if (board.isValid()) {
+                frontier.push(board);
+            }
+        }
+        long count = 0;
+        byte[] solution = null;
+        long searched = 0;
+        while (!frontier.isEmpty()) {
+            Board board = frontier.pop();
+            if (EngineSelector.countEmpty(board) == 0) {
+                count++;
+                if (solution == null) {
+                    solution = Checkpoint.values(board);
+                }
+            }
+            else {
+                List<Board> children = new ArrayList<>(board.getSuccessorsMostConstrained());
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    if (children.get(i).isValid()) {
+                        frontier.push(children.get(i));
+                    }
+                }
+            }
+            if ((++searched & POLL_MASK) == 0 && in.available() > 0) {
+                int type = in.readUnsignedByte();
+                if (type == SearchProtocol.DONE) {
+                    return false;
+                }
+                else if (type != SearchProtocol.STEAL) {
+                    throw new IOException("unexpected message " + type);
+                }
+                split(id, count, solution, frontier, out);
+                count = 0;
+                solution = null;
+            }
+        }
+        out.writeByte(SearchProtocol.RESULT);
+        out.writeLong(id);
+        out.writeLong(count);
+        SearchProtocol.writeSolution(out, solution);
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Answers a steal request with the solutions found so far, the boards kept and the shallowest half given away.
+     * A frontier of one board gives nothing away.
+     * @param id        unit id
+     * @param count     solutions found since the unit started or was last split
+     * @param solution  first of those solutions, or null for none
+     * @param frontier  unexplored boards, the given away ones are removed
+     * @param out       messages to the coordinator
+     * @throws IOException  if the connection fails
+     */
+    private static void split(long id, long count, byte[] solution, Deque<Board> frontier, DataOutputStream out) throws IOException {
+        List<byte[]> given = new ArrayList<>();
+        for (int i = frontier.size() / 2; i > 0; i--) {
+            given.add(Checkpoint.values(frontier.pollLast()));
+        }
+        List<byte[]> kept = new ArrayList<>(frontier.size());
+        for (Board board : frontier) {
+            kept.add(Checkpoint.values(board));
+        }
+        out.writeByte(SearchProtocol.SPLIT);
+        out.writeLong(id);
+        out.writeLong(count);
+        SearchProtocol.writeSolution(out, solution);
+        SearchProtocol.writeBoards(out, kept);
+        SearchProtocol.writeBoards(out, given);
+        out.flush();
+    }
+}
@@ -0,0 +1,114 @@
+package solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily enumerates every solution of a board with a depth first search over its successors.
+ * The search only advances as far as the next solution, and splitting hands the shallowest unexplored
+ * boards, which hold the largest subtrees, to the new spliterator.
+ * @author Will Mackin
+ */
+
+public class SolutionSpliterator implements Spliterator<Board> {
+    private final Deque<Board> frontier; //boards still to explore, the next one to search is first
+
+    /**
+     * Makes a spliterator over the solutions of a board. A board whose numbers already conflict has none.
+     * @param board board to solve, it is copied and left unchanged
+     */
+    public SolutionSpliterator(Board board) {
+        this.frontier = new ArrayDeque<>();
+        Board start = new Board(board.getBoard(), board.getVariant());
+        if (board.isValid() && start.isValid()) { //the copy only notices cells left without a value, not duplicates
+            frontier.push(start);
+        }
+    }
+
+    /**
+     * Makes a spliterator over part of another spliterator's search
+     * @param frontier  boards handed off by trySplit
+     */
+    private SolutionSpliterator(Deque<Board> frontier) {
+        this.frontier = frontier;
+    }
+
+    /**
+     * Makes a stream of every solution of a board
+     * @param board board to solve, it is copied and left unchanged
+     * @return      lazy stream of solved boards, may be made parallel
+     */
+    public static Stream<Board> stream(Board board) {
+        return StreamSupport.stream(new SolutionSpliterator(board), false);
+    }
+
+    /**
+     * Searches until the next solution is found
+     * @param action    receives the solution
+     * @return          true if a solution was found, false if the search is finished
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Board> action) {
+        while (!frontier.isEmpty()) {
+            Board board = frontier.pop();
+            if (EngineSelector.countEmpty(board) == 0) {
+                action.accept(board);
+                return true;
+            }
+            expand(board);
+        }
+        return false;
+    }
+
+    /**
+     * Hands off half of the unexplored boards, expanding a lone board first so there is something to share
+     * @return  spliterator over the handed off boards, or null if there is nothing left to split
+     */
+    @Override
+    public Spliterator<Board> trySplit() {
+        while (frontier.size() == 1 && EngineSelector.countEmpty(frontier.peek()) != 0) {
+            expand(frontier.pop());
+        }
+        if (frontier.size() < 2) {
+            return null;
+        }
+        Deque<Board> handoff = new ArrayDeque<>();
+        for (int i = frontier.size() / 2; i > 0; i--) {
+            handoff.addFirst(frontier.pollLast());
+        }
+        return new SolutionSpliterator(handoff);
+    }
+
+    /**
+     * Replaces a board on the frontier with its valid successors, keeping them in search order
+     * @param board board to expand
+     */
+    private void expand(Board board) {
+        List<Board> children = new ArrayList<>(board.getSuccessorsMostConstrained());
+        for (int i = children.size() - 1; i >= 0; i--) {
+            if (children.get(i).isValid()) {
+                frontier.push(children.get(i));
+            }
+        }
+    }
+
+    /**
+     * The number of solutions is not known in advance
+     * @return  Long.MAX_VALUE
+     */
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,424 @@
+package solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent map from classic puzzles to their solutions, kept in a memory mapped file instead of on the heap.
+ * Puzzles are stored in a canonical form, so a puzzle is found again after its digits are relabelled or it is
+ * transposed. The file holds a header, an open addressing index of (hash, record number) slots probed linearly,
+ * and the records themselves, appended in order. One writer appends a record and then publishes its slot with a
+ * release store; readers probe with acquire loads and need no locks, in this process or any other.
+ * The file is sized for its capacity when created. Pages are only backed by disk once written.
+ * @author Will Mackin
+ */
+
+public final class SolutionStore implements Closeable {
+    private static final long MAGIC = 0x534F4C5354525631L; //"SOLSTRV1", marks a store file
+    private static final int HEADER = 64; //bytes before the index
+    private static final int SLOT = 16; //bytes per index slot, hash then record number + 1, 0 while empty
+    private static final int PACKED = 41; //bytes per grid packed two digits to a byte
+    private static final int RECORD = 2 * PACKED; //bytes per record, canonical puzzle then canonical solution
+    private static final int SEGMENT_BITS = 30; //the file is mapped in 1 GiB segments
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final int COUNT = 24; //header offset of the number of records
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel; //open store file
+    private final FileLock lock; //held by the writer, null for readers
+    private final MappedByteBuffer[] segments; //the whole file, mapped
+    private final long slotMask; //index slots - 1
+    private final long capacity; //most records the store can hold
+    private final long records; //file offset of the first record
+
+    private SolutionStore(FileChannel channel, FileLock lock, boolean writable) throws IOException {
+        this.channel = channel;
+        this.lock = lock;
+        long size = channel.size();
+        this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    position, Math.min(1L << SEGMENT_BITS, size - position));
+        }
+        if (size < HEADER || segments[0].getLong(0) != MAGIC) {
+            throw new IOException("not a solution store");
+        }
+        this.slotMask = (1L << segments[0].getInt(12)) - 1;
+        this.capacity = segments[0].getLong(16);
+        this.records = HEADER + (slotMask + 1) * SLOT;
+        if (size < records + capacity * RECORD) {
+            throw new IOException("solution store is truncated");
+        }
+    }
+
+    /**
+     * Opens a store for reading and writing, creating it if the file does not exist.
+     * Only one writer may have a store open at a time, across every process.
+     * @param file      store file
+     * @param capacity  most records a new store can hold, ignored if the file exists
+     * @return          the store
+     * @throws IOException  if the file cannot be opened, is not a store or is already open for writing
+     */
+    public static SolutionStore open(Path file, long capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("solution store is open for writing in another process: " + file);
+            }
+            if (channel.size() == 0) {
+                int slotBits = 64 - Long.numberOfLeadingZeros(Math.max(1, 2 * capacity - 1)); //at most half full
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER)
+                        .putLong(MAGIC).putInt(1).putInt(slotBits).putLong(capacity).putLong(0).flip(), 0);
+                long size = HEADER + (1L << slotBits) * SLOT + capacity * RECORD;
+                channel.write(ByteBuffer.allocate(1), size - 1); //sparse, pages are allocated when written
+            }
+            return new SolutionStore(channel, lock, true);
+        }
+        catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("solution store is already open for writing: " + file, e);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing store for reading only. Records appended by a writer show up as they are published.
+     * @param file  store file
+     * @return      the store
+     * @throws IOException  if the file cannot be opened or is not a store
+     */
+    public static SolutionStore openReader(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new SolutionStore(channel, null, false);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up the solution of a puzzle
+     * @param puzzle    packed puzzle, 0 for empty cells
+     * @return          packed solution, or null if the puzzle is not stored
+     */
+    public byte[] get(byte[] puzzle) {
+        Canonical canonical = new Canonical(puzzle);
+        long record = find(canonical.hash, canonical.packed);
+        if (record < 0) {
+            return null;
+        }
+        byte[] stored = new byte[PACKED];
+        read(records + record * RECORD + PACKED, stored);
+        byte[] solution = canonical.restore(unpack(stored));
+        return SolutionVerifier.verify(Variant.CLASSIC, puzzle, solution) ? solution : null;
+    }
+
+    /**
+     * Stores the solution of a puzzle
+     * @param puzzle    packed puzzle, 0 for empty cells
+     * @param solution  packed solution of the puzzle
+     * @return          true if it was added, false if the puzzle was already stored or the store is full
+     */
+    public synchronized boolean put(byte[] puzzle, byte[] solution) {
+        if (lock == null) {
+            throw new IllegalStateException("solution store was opened for reading only");
+        }
+        if (!SolutionVerifier.verify(Variant.CLASSIC, puzzle, solution)) {
+            throw new IllegalArgumentException("not a solution of the puzzle");
+        }
+        long count = size();
+        if (count == capacity) {
+            return false;
+        }
+        Canonical canonical = new Canonical(puzzle);
+        long slot = canonical.hash & slotMask;
+        while ((long) LONGS.getAcquire(segment(slotAt(slot) + 8), offset(slotAt(slot) + 8)) != 0) {
+            if (matches(slot, canonical.hash, canonical.packed)) {
+                return false;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        write(records + count * RECORD, canonical.packed);
+        write(records + count * RECORD + PACKED, pack(canonical.apply(solution)));
+        long position = slotAt(slot);
+        LONGS.set(segment(position), offset(position), canonical.hash);
+        LONGS.setRelease(segment(position + 8), offset(position + 8), count + 1);
+        LONGS.setRelease(segments[0], COUNT, count + 1);
+        return true;
+    }
+
+    /**
+     * Checks whether solutions can be added
+     * @return  true if the store was opened for writing
+     */
+    public boolean isWritable() {
+        return lock != null;
+    }
+
+    /**
+     * Size accessor
+     * @return  number of records stored
+     */
+    public long size() {
+        return (long) LONGS.getAcquire(segments[0], COUNT);
+    }
+
+    /**
+     * Capacity accessor
+     * @return  most records the store can hold
+     */
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Writes every change out to the file, otherwise the operating system writes them back in its own time
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (!segment.isReadOnly()) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until the store is garbage collected, so lookups already running finish.
+     * @throws IOException  if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (lock != null) {
+            force();
+            lock.release();
+        }
+        channel.close();
+    }
+
+    /**
+     * Probes the index for a canonical puzzle
+     * @param hash      hash of the canonical puzzle
+     * @param packed    packed canonical puzzle
+     * @return          record number, or -1 if it is not stored
+     */
+    private long find(long hash, byte[] packed) {
+        long slot = hash & slotMask;
+        while (true) {
+            long position = slotAt(slot);
+            if ((long) LONGS.getAcquire(segment(position + 8), offset(position + 8)) == 0) {
+                return -1;
+            }
+            if (matches(slot, hash, packed)) {
+                return (long) LONGS.get(segment(position + 8), offset(position + 8)) - 1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    /**
+     * Checks whether a published slot holds a canonical puzzle, comparing the hash and then the stored puzzle
+     * @param slot      published index slot
+     * @param hash      hash of the canonical puzzle
+     * @param packed    packed canonical puzzle
+     * @return          true if the slot's record is the puzzle
+     */
+    private boolean matches(long slot, long hash, byte[] packed) {
+        long position = slotAt(slot);
+        if ((long) LONGS.get(segment(position), offset(position)) != hash) {
+            return false;
+        }
+        long record = records + ((long) LONGS.getAcquire(segment(position + 8), offset(position + 8)) - 1) * RECORD;
+        for (int i = 0; i < PACKED; i++) {
+            if (byteAt(record + i) != packed[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long slotAt(long slot) {
+        return HEADER + slot * SLOT;
+    }
+
+    private MappedByteBuffer segment(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)];
+    }
+
+    private static int offset(long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+
+    private byte byteAt(long position) {
+        return segment(position).get(offset(position));
+    }
+
+    /**
+     * Copies bytes out of the file, records may straddle two segments
+     * @param position  file offset
+     * @param into      bytes to fill
+     */
+    private void read(long position, byte[] into) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] = byteAt(position + i);
+        }
+    }
+
+    /**
+     * Copies bytes into the file, records may straddle two segments
+     * @param position  file offset
+     * @param bytes     bytes to write
+     */
+    private void write(long position, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            segment(position + i).put(offset(position + i), bytes[i]);
+        }
+    }
+
+    /**
+     * Packs 81 values two to a byte, high nibble first
+     * @param values    values from 0 to 9
+     * @return          41 bytes
+     */
+    private static byte[] pack(byte[] values) {
+        byte[] packed = new byte[PACKED];
+        for (int cell = 0; cell < 81; cell += 2) {
+            packed[cell / 2] = (byte) (values[cell] << 4 | (cell + 1 < 81 ? values[cell + 1] : 0));
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks 81 values packed by pack
+     * @param packed    41 bytes
+     * @return          values from 0 to 9
+     */
+    private static byte[] unpack(byte[] packed) {
+        byte[] values = new byte[81];
+        for (int cell = 0; cell < 81; cell += 2) {
+            values[cell] = (byte) ((packed[cell / 2] >>> 4) & 0xF);
+            if (cell + 1 < 81) {
+                values[cell + 1] = (byte) (packed[cell / 2] & 0xF);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Canonical form of a puzzle: of the puzzle and its transpose, whichever comes first once digits are relabelled
+     * in order of first appearance. Digits the puzzle does not use are given the remaining labels in order.
+     */
+    private static final class Canonical {
+        private final boolean transposed; //true if the canonical form is the transpose
+        private final byte[] relabel; //canonical label of each original digit
+        private final byte[] original; //original digit of each canonical label
+        private final byte[] packed; //packed canonical puzzle
+        private final long hash; //hash of the canonical puzzle
+
+        private Canonical(byte[] puzzle) {
+            byte[] straight = new byte[10];
+            byte[] across = new byte[10];
+            byte[] plain = relabelled(puzzle, false, straight);
+            byte[] flipped = relabelled(puzzle, true, across);
+            boolean flip = compare(flipped, plain) < 0;
+            this.transposed = flip;
+            this.relabel = flip ? across : straight;
+            this.original = new byte[16]; //labels read back from a damaged file can be up to 15
+            for (int digit = 1; digit <= 9; digit++) {
+                original[relabel[digit]] = (byte) digit;
+            }
+            byte[] values = flip ? flipped : plain;
+            this.packed = pack(values);
+            long h = 0xCBF29CE484222325L;
+            for (byte value : values) {
+                h = (h ^ value) * 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            this.hash = h;
+        }
+
+        /**
+         * Relabels the digits of a grid in order of first appearance
+         * @param grid          packed grid
+         * @param transpose     true to read the grid column by column
+         * @param labels        filled with the label of each digit
+         * @return              relabelled grid
+         */
+        private static byte[] relabelled(byte[] grid, boolean transpose, byte[] labels) {
+            byte[] out = new byte[81];
+            byte next = 1;
+            for (int cell = 0; cell < 81; cell++) {
+                int value = grid[transpose ? (cell % 9) * 9 + cell / 9 : cell];
+                if (value != 0) {
+                    if (labels[value] == 0) {
+                        labels[value] = next++;
+                    }
+                    out[cell] = labels[value];
+                }
+            }
+            for (int digit = 1; digit <= 9; digit++) {
+                if (labels[digit] == 0) {
+                    labels[digit] = next++;
+                }
+            }
+            return out;
+        }
+
+        private static int compare(byte[] a, byte[] b) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[i]) {
+                    return a[i] - b[i];
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Puts a solution of the original puzzle in canonical form
+         * @param solution  packed solution of the original puzzle
+         * @return          packed canonical solution
+         */
+        private byte[] apply(byte[] solution) {
+            byte[] out = new byte[81];
+            for (int cell = 0; cell < 81; cell++) {
+                out[cell] = relabel[solution[transposed ? (cell % 9) * 9 + cell / 9 : cell]];
+            }
+            return out;
+        }
+
+        /**
+         * Turns a canonical solution back into a solution of the original puzzle
+         * @param canonicalSolution packed canonical solution
+         * @return                  packed solution of the original puzzle
+         */
+        private byte[] restore(byte[] canonicalSolution) {
+            byte[] out = new byte[81];
+            for (int cell = 0; cell < 81; cell++) {
+                out[transposed ? (cell % 9) * 9 + cell / 9 : cell] = original[canonicalSolution[cell]];
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package solver;
+
+/**
+ * Checks solved grids against every unit and against their puzzle's givens, independently of how they were solved.
+ * Grids are packed as 81 bytes in row major order holding the value of each cell, and batches are laid end to end
+ * in one array. Each unit is checked by ORing a bit per value, so a unit is correct when all 9 bits are set.
+ * @author Will Mackin
+ */
+
+public final class SolutionVerifier {
+    public static final int CELLS = 81; //bytes per packed grid
+    private static final int ALL = 0x1FF; //one bit for each value from 1 to 9
+    private static final int[] SQUARE_OF = makeSquares(); //square of each cell
+
+    private SolutionVerifier() {
+    }
+
+    /**
+     * Packs a grid written as 81 characters
+     * @param grid  1 to 9 for values and anything else for empty cells
+     * @return      packed grid, 0 for empty cells
+     */
+    public static byte[] pack(CharSequence grid) {
+        if (grid.length() != CELLS) {
+            throw new IllegalArgumentException("grid must have 81 cells: " + grid.length());
+        }
+        byte[] packed = new byte[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            char ch = grid.charAt(cell);
+            if (ch >= '1' && ch <= '9') {
+                packed[cell] = (byte) (ch - '0');
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Packs a board
+     * @param board board to read
+     * @return      packed grid, 0 for empty cells
+     */
+    public static byte[] pack(Board board) {
+        return Checkpoint.values(board);
+    }
+
+    /**
+     * Checks that a board solves a puzzle, including any extra units and cages of the puzzle's variant
+     * @param puzzle    puzzle with its givens
+     * @param solution  board claimed to solve it
+     * @return          true if the solution is complete, satisfies every constraint and keeps every given
+     */
+    public static boolean verify(Board puzzle, Board solution) {
+        return verify(puzzle.getVariant(), pack(puzzle), pack(solution));
+    }
+
+    /**
+     * Checks that a packed grid solves a packed puzzle of a variant
+     * @param variant   constraints of the puzzle
+     * @param puzzle    packed puzzle, 0 for empty cells
+     * @param solution  packed grid claimed to solve it
+     * @return          true if the solution is complete, satisfies every constraint and keeps every given
+     */
+    public static boolean verify(Variant variant, byte[] puzzle, byte[] solution) {
+        if (!verify(puzzle, 0, solution, 0, new int[18])) {
+            return false;
+        }
+        int[][] units = variant.getUnits();
+        for (int i = 27; i < units.length; i++) {
+            int seen = 0;
+            for (int cell : units[i]) {
+                seen |= 1 << (solution[cell] - 1);
+            }
+            if (seen != ALL) {
+                return false;
+            }
+        }
+        for (Cage cage : variant.getCages()) {
+            int seen = 0;
+            int sum = 0;
+            for (int cell : cage.getCells()) {
+                seen |= 1 << (solution[cell] - 1);
+                sum += solution[cell];
+            }
+            if (sum != cage.getSum() || Integer.bitCount(seen) != cage.getCells().length) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that a packed grid is a classic solution
+     * @param grid      packed grid
+     * @return          true if every cell holds 1 to 9 and every row, column and square holds each value once
+     */
+    public static boolean isSolution(byte[] grid) {
+        return verify(null, 0, grid, 0, new int[18]);
+    }
+
+    /**
+     * Checks a batch of classic solutions, optionally against their puzzles
+     * @param puzzles   packed puzzles end to end, or null to skip the givens check
+     * @param solutions packed grids end to end, the grid at index i solves the puzzle at index i
+     * @param count     number of grids to check
+     * @param results   set to whether each grid is correct, or null if only the total is wanted
+     * @return          number of correct grids
+     */
+    public static int verifyAll(byte[] puzzles, byte[] solutions, int count, boolean[] results) {
+        if (solutions.length < count * CELLS || (puzzles != null && puzzles.length < count * CELLS)) {
+            throw new IllegalArgumentException("arrays hold fewer than " + count + " grids");
+        }
+        int[] scratch = new int[18];
+        int correct = 0;
+        for (int i = 0; i < count; i++) {
+            boolean ok = verify(puzzles, i * CELLS, solutions, i * CELLS, scratch);
+            if (results != null) {
+                results[i] = ok;
+            }
+            if (ok) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    /**
+     * Checks one packed classic grid in a single pass, building row masks as it goes and column and square
+     * masks in scratch. Values outside 1 to 9 make (v - 1) | (9 - v) negative, which is caught once at the end.
+     * @param puzzles   packed puzzles, or null to skip the givens check
+     * @param puzzle    offset of the puzzle
+     * @param grids     packed grids
+     * @param grid      offset of the grid
+     * @param scratch   18 ints, overwritten
+     * @return          true if the grid is a solution that keeps every given
+     */
+    private static boolean verify(byte[] puzzles, int puzzle, byte[] grids, int grid, int[] scratch) {
+        for (int i = 0; i < 18; i++) {
+            scratch[i] = 0;
+        }
+        int range = 0;
+        for (int r = 0; r < 9; r++) {
+            int row = 0;
+            for (int c = 0; c < 9; c++) {
+                int cell = r * 9 + c;
+                int value = grids[grid + cell];
+                range |= (value - 1) | (9 - value);
+                int bit = 1 << (value - 1);
+                row |= bit;
+                scratch[c] |= bit;
+                scratch[9 + SQUARE_OF[cell]] |= bit;
+            }
+            if (row != ALL) {
+                return false;
+            }
+        }
+        int units = ALL;
+        for (int i = 0; i < 18; i++) {
+            units &= scratch[i];
+        }
+        if (range < 0 || units != ALL) {
+            return false;
+        }
+        if (puzzles != null) {
+            int clash = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                int given = puzzles[puzzle + cell];
+                clash |= given * (given ^ grids[grid + cell]);
+            }
+            return clash == 0;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the square of each cell
+     * @return  81 square indices in row major order
+     */
+    private static int[] makeSquares() {
+        int[] squares = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            squares[cell] = (cell / 27) * 3 + (cell % 9) / 3;
+        }
+        return squares;
+    }
+}
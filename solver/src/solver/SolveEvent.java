@@ -0,0 +1,29 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a whole solve of the model's board, its duration is the elapsed time
+ * @author Will Mackin
+ */
+
+@Name("solver.Solve")
+@Label("Solve")
+@Category("Sudoku Solver")
+@Description("Solving one puzzle from its clues")
+final class SolveEvent extends jdk.jfr.Event {
+    @Label("Clues")
+    int clues; //values given before solving
+
+    @Label("Nodes")
+    long nodes; //boards searched
+
+    @Label("Backtracks")
+    long backtracks; //subtrees without a solution
+
+    @Label("Solved")
+    boolean solved; //true if a solution was found
+}
@@ -0,0 +1,251 @@
+package solver;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline stage that solves boards on a fixed number of threads.
+ * At most maxInFlight boards are held at once, counting both those being solved and solved ones waiting
+ * for downstream demand, and a new board is only requested from upstream when a result is emitted.
+ * Results are emitted in input order, or as soon as each is solved when unordered.
+ * @author Will Mackin
+ */
+
+public class SolveProcessor implements Flow.Processor<Board, SolveResult> {
+    private final int maxInFlight; //most boards held by this stage at once
+    private final boolean ordered; //true to emit results in input order
+    private final ExecutorService workers; //solving threads
+    private final ThreadLocal<SudokuModel> models; //one model per solving thread, models are not thread safe
+
+    private final Map<Long, SolveResult> waiting = new ConcurrentHashMap<>(); //solved results by sequence, when ordered
+    private final Queue<SolveResult> ready = new ConcurrentLinkedQueue<>(); //solved results, when unordered
+    private final AtomicLong demand = new AtomicLong(); //results the downstream subscriber has requested
+    private final AtomicInteger wip = new AtomicInteger(); //serializes emission, nonzero while a thread is draining
+    private final AtomicLong received = new AtomicLong(); //boards received from upstream
+    private long emitted; //results emitted, only touched while draining
+    private long nextSequence; //sequence of the next board from upstream, only touched by upstream signals
+
+    private volatile Flow.Subscription upstream; //subscription to the board publisher
+    private volatile Flow.Subscriber<? super SolveResult> downstream; //the one result subscriber
+    private volatile boolean upstreamDone; //true once upstream completed or failed
+    private volatile Throwable error; //first failure from upstream or a solving thread
+    private volatile boolean cancelled; //true once downstream cancelled
+    private boolean terminated; //true once a terminal signal went downstream, only touched while draining
+
+    /**
+     * Makes a solving stage
+     * @param concurrency   number of solving threads
+     * @param maxInFlight   most boards held at once, at least the concurrency
+     * @param ordered       true to emit results in input order, false to emit each as soon as it is solved
+     */
+    public SolveProcessor(int concurrency, int maxInFlight, boolean ordered) {
+        if (concurrency < 1 || maxInFlight < concurrency) {
+            throw new IllegalArgumentException("need 1 <= concurrency <= maxInFlight: " + concurrency + ", " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-solve");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.models = ThreadLocal.withInitial(() -> {
+            SudokuModel model = new SudokuModel((subject, data) -> { });
+            model.setVerbose(false);
+            return model;
+        });
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super SolveResult> subscriber) {
+        if (downstream != null) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("SolveProcessor only allows one subscriber"));
+            return;
+        }
+        downstream = subscriber;
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("request must be positive: " + n));
+                    return;
+                }
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                shutdown();
+            }
+        });
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        subscription.request(maxInFlight);
+    }
+
+    @Override
+    public void onNext(Board board) {
+        long sequence = nextSequence++;
+        received.incrementAndGet();
+        try {
+            workers.execute(() -> solve(sequence, board));
+        }
+        catch (RejectedExecutionException e) {
+            if (!cancelled) {
+                fail(e);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    /**
+     * Solves one board on a solving thread and queues its result for emission
+     * @param sequence  position of the board in the input
+     * @param board     puzzle to solve
+     */
+    private void solve(long sequence, Board board) {
+        try {
+            long start = System.nanoTime();
+            SolveResult result;
+            if (!board.isValid()) {
+                result = new SolveResult(sequence, board, null, SolveResult.Status.INVALID, System.nanoTime() - start);
+            }
+            else {
+                Board sol = models.get().solve(board, 0);
+                boolean solved = sol.boardFilled() && SolutionVerifier.verify(board, sol);
+                result = new SolveResult(sequence, board, solved ? sol : null,
+                        solved ? SolveResult.Status.SOLVED : SolveResult.Status.NO_SOLUTION, System.nanoTime() - start);
+            }
+            if (ordered) {
+                waiting.put(sequence, result);
+            }
+            else {
+                ready.add(result);
+            }
+            drain();
+        }
+        catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the first failure and stops taking boards
+     * @param throwable failure to pass downstream
+     */
+    private void fail(Throwable throwable) {
+        if (error == null) {
+            error = throwable;
+        }
+        upstreamDone = true;
+        drain();
+    }
+
+    /**
+     * Emits results while there is demand, asking upstream for one board per result emitted,
+     * and signals completion once every board has been emitted. Only one thread drains at a time.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (downstream != null && !terminated) {
+                if (cancelled) {
+                    terminated = true;
+                }
+                else if (error != null) {
+                    terminated = true;
+                    if (upstream != null) {
+                        upstream.cancel();
+                    }
+                    shutdown();
+                    downstream.onError(error);
+                }
+                else {
+                    emit();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Emits ready results up to the current demand, part of drain
+     */
+    private void emit() {
+        while (demand.get() > 0 && !cancelled && error == null) {
+            SolveResult result = ordered ? waiting.remove(emitted) : ready.poll();
+            if (result == null) {
+                break;
+            }
+            demand.decrementAndGet();
+            emitted++;
+            downstream.onNext(result);
+            if (!upstreamDone) {
+                upstream.request(1);
+            }
+        }
+        if (upstreamDone && error == null && !cancelled && emitted == received.get()) {
+            terminated = true;
+            shutdown();
+            downstream.onComplete();
+        }
+    }
+
+    /**
+     * Stops the solving threads, letting a solve in progress finish
+     */
+    private void shutdown() {
+        workers.shutdown();
+        if (cancelled && upstream != null) {
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Max in flight accessor
+     * @return  most boards held by this stage at once
+     */
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+}
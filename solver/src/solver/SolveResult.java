@@ -0,0 +1,72 @@
+package solver;
+
+/**
+ * The outcome of solving one puzzle in a pipeline
+ * @author Will Mackin
+ */
+
+public class SolveResult {
+
+    /**
+     * How a puzzle turned out
+     */
+    public enum Status {
+        SOLVED, //a solution was found
+        NO_SOLUTION, //the search finished without a solution
+        INVALID //the givens conflict, so no search was done
+    }
+
+    private final long sequence; //position of the puzzle in the input, starting at 0
+    private final Board puzzle; //puzzle as it was received
+    private final Board solution; //solved board, null unless solved
+    private final Status status; //how the puzzle turned out
+    private final long nanos; //time spent solving
+
+    public SolveResult(long sequence, Board puzzle, Board solution, Status status, long nanos) {
+        this.sequence = sequence;
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.status = status;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Sequence accessor
+     * @return  position of the puzzle in the input, starting at 0
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Puzzle accessor
+     * @return  puzzle as it was received
+     */
+    public Board getPuzzle() {
+        return this.puzzle;
+    }
+
+    /**
+     * Solution accessor
+     * @return  solved board, or null if the puzzle was not solved
+     */
+    public Board getSolution() {
+        return this.solution;
+    }
+
+    /**
+     * Status accessor
+     * @return  how the puzzle turned out
+     */
+    public Status getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Time accessor
+     * @return  nanoseconds spent solving
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+}
@@ -0,0 +1,41 @@
+package solver;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Checks whether each solver event is being recorded, so events are only created when a recording wants them.
+ * Loading an event class starts up parts of flight recorder, so the classes are not touched until it is running.
+ * @author Will Mackin
+ */
+
+final class SolverEvents {
+
+    private SolverEvents() {
+    }
+
+    /**
+     * One idle instance of each event, isEnabled() only reads state shared by every instance of the class
+     */
+    private static final class Probes {
+        static final SolveEvent SOLVE = new SolveEvent();
+        static final PropagationEvent PROPAGATION = new PropagationEvent();
+        static final SubtreeEvent SUBTREE = new SubtreeEvent();
+        static final EngineSelectionEvent ENGINE_SELECTION = new EngineSelectionEvent();
+    }
+
+    static boolean solveEnabled() {
+        return FlightRecorder.isInitialized() && Probes.SOLVE.isEnabled();
+    }
+
+    static boolean propagationEnabled() {
+        return FlightRecorder.isInitialized() && Probes.PROPAGATION.isEnabled();
+    }
+
+    static boolean subtreeEnabled() {
+        return FlightRecorder.isInitialized() && Probes.SUBTREE.isEnabled();
+    }
+
+    static boolean engineSelectionEnabled() {
+        return FlightRecorder.isInitialized() && Probes.ENGINE_SELECTION.isEnabled();
+    }
+}
@@ -0,0 +1,169 @@
+package solver;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process wide solver counters, published as a platform MBean once register() is called.
+ * Counters are LongAdders, so solving threads add to their own cells instead of contending for one value.
+ * @author Will Mackin
+ */
+
+public final class SolverMetrics implements SolverMetricsMBean {
+    public static final String OBJECT_NAME = "solver:type=SolverMetrics"; //name the MBean is registered under
+    private static final int BUCKETS = 32; //latency buckets, the last one holds everything over about 35 minutes
+    static final SolverMetrics METRICS = new SolverMetrics(); //the one set of counters
+
+    final LongAdder solves = new LongAdder(); //solves started
+    final LongAdder nodes = new LongAdder(); //boards searched
+    final LongAdder propagations = new LongAdder(); //propagation runs
+    final LongAdder backtracks = new LongAdder(); //subtrees without a solution
+    final LongAdder contradictions = new LongAdder(); //boards with a cell that has no possibilities
+    final LongAdder cacheHits = new LongAdder(); //boards the transposition table knew had no solution
+    final LongAdder timeouts = new LongAdder(); //solves stopped by their time limit
+    final LongAdder aborts = new LongAdder(); //solves stopped by an interrupt
+    private final LongAdder[][] latencies = new LongAdder[Engine.values().length][BUCKETS]; //histogram by engine
+
+    private SolverMetrics() {
+        for (LongAdder[] histogram : latencies) {
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Gets the solver metrics
+     * @return  the process wide metrics
+     */
+    public static SolverMetrics get() {
+        return METRICS;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, doing nothing if they are already registered.
+     * Not done automatically because starting the MBean server slows down short lived processes.
+     */
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(METRICS, new ObjectName(OBJECT_NAME));
+        }
+        catch (InstanceAlreadyExistsException e) {
+            //registered by an earlier call
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Records how long a solve took
+     * @param engine    engine the solve used
+     * @param nanos     time the solve took
+     */
+    void recordLatency(Engine engine, long nanos) {
+        long micros = nanos / 1000;
+        int bucket = micros < 2 ? 0 : Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        latencies[engine.ordinal()][bucket].increment();
+    }
+
+    @Override
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getPropagations() {
+        return propagations.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public long getContradictions() {
+        return contradictions.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getAborts() {
+        return aborts.sum();
+    }
+
+    @Override
+    public long[] latencyHistogram(String engine) {
+        LongAdder[] histogram = latencies[Engine.valueOf(engine).ordinal()];
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram[i].sum();
+        }
+        return counts;
+    }
+
+    @Override
+    public long latencyPercentile(String engine, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = latencyHistogram(engine);
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << BUCKETS;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : new LongAdder[] {solves, nodes, propagations, backtracks, contradictions, cacheHits, timeouts, aborts}) {
+            counter.reset();
+        }
+        for (LongAdder[] histogram : latencies) {
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * Gives a string representation of the counters
+     * @return  counters as string
+     */
+    @Override
+    public String toString() {
+        return "solves=" + getSolves() + " nodes=" + getNodes() + " propagations=" + getPropagations()
+                + " backtracks=" + getBacktracks() + " contradictions=" + getContradictions()
+                + " cacheHits=" + getCacheHits() + " timeouts=" + getTimeouts() + " aborts=" + getAborts();
+    }
+}
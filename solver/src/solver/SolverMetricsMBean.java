@@ -0,0 +1,70 @@
+package solver;
+
+/**
+ * Management interface of the solver metrics, shown in JConsole and other JMX clients
+ * @author Will Mackin
+ */
+
+public interface SolverMetricsMBean {
+
+    /**
+     * @return  number of solves started
+     */
+    long getSolves();
+
+    /**
+     * @return  number of boards searched
+     */
+    long getNodes();
+
+    /**
+     * @return  number of propagation runs
+     */
+    long getPropagations();
+
+    /**
+     * @return  number of subtrees without a solution
+     */
+    long getBacktracks();
+
+    /**
+     * @return  number of boards found to have a cell with no possibilities
+     */
+    long getContradictions();
+
+    /**
+     * @return  number of boards skipped because the transposition table knew they had no solution
+     */
+    long getCacheHits();
+
+    /**
+     * @return  number of solves stopped by their time limit
+     */
+    long getTimeouts();
+
+    /**
+     * @return  number of solves stopped by an interrupt
+     */
+    long getAborts();
+
+    /**
+     * Gets the latency histogram of an engine. Bucket i counts solves that took under 2^(i+1) microseconds
+     * and, past the first bucket, at least 2^i microseconds.
+     * @param engine    name of the engine
+     * @return          solve counts by bucket
+     */
+    long[] latencyHistogram(String engine);
+
+    /**
+     * Estimates a latency percentile of an engine from its histogram
+     * @param engine        name of the engine
+     * @param percentile    percentile between 0 and 100
+     * @return              upper bound of the bucket holding the percentile in microseconds, 0 if there are no solves
+     */
+    long latencyPercentile(String engine, double percentile);
+
+    /**
+     * Sets every counter and histogram back to 0
+     */
+    void reset();
+}
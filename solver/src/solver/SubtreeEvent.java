@@ -0,0 +1,29 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for searching the subtree below one successor
+ * @author Will Mackin
+ */
+
+@Name("solver.Subtree")
+@Label("Backtracking Subtree")
+@Category("Sudoku Solver")
+@Description("Searching the subtree below one successor board")
+final class SubtreeEvent extends jdk.jfr.Event {
+    @Label("Layer")
+    int layer; //level of recursion of the successor
+
+    @Label("Nodes")
+    long nodes; //boards searched in the subtree
+
+    @Label("Backtracks")
+    long backtracks; //subtrees without a solution, including this one if it failed
+
+    @Label("Solved")
+    boolean solved; //true if the subtree held a solution
+}
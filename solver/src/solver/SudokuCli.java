@@ -0,0 +1,348 @@
+package solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point that solves or grades puzzles without a display.
+ * Puzzles are read one per line as 81 characters in row major order, with 1 to 9 for givens and
+ * anything else for empty cells. Blank lines and lines starting with # are skipped.
+ * @author Will Mackin
+ */
+
+public class SudokuCli {
+    private static final long CHECKPOINT_INTERVAL = 30_000; //milliseconds between checkpoints of a search
+    private static final int VERIFY_BATCH = 4096; //solutions checked together by --verify
+    private static final long STORE_CAPACITY = 1L << 16; //default records in a solution store created by --store, about 7 MB
+
+    private SudokuCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean grade = false;
+        boolean verify = false;
+        boolean jmx = false;
+        boolean portfolio = false;
+        long timeLimit = 0;
+        Path checkpoint = null;
+        Path resume = null;
+        Path store = null;
+        long storeSize = STORE_CAPACITY;
+        int serve = -1;
+        String work = null;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--grade")) {
+                grade = true;
+            }
+            else if (arg.equals("--verify")) {
+                verify = true;
+            }
+            else if (arg.equals("--jmx")) {
+                jmx = true;
+            }
+            else if (arg.equals("--portfolio")) {
+                portfolio = true;
+            }
+            else if (arg.equals("--timeout") && i + 1 < args.length) {
+                timeLimit = Long.parseLong(args[++i]);
+            }
+            else if (arg.equals("--checkpoint") && i + 1 < args.length) {
+                checkpoint = Paths.get(args[++i]);
+            }
+            else if (arg.equals("--resume") && i + 1 < args.length) {
+                resume = Paths.get(args[++i]);
+            }
+            else if (arg.equals("--store") && i + 1 < args.length) {
+                store = Paths.get(args[++i]);
+            }
+            else if (arg.equals("--store-size") && i + 1 < args.length) {
+                storeSize = Long.parseLong(args[++i]);
+            }
+            else if (arg.equals("--serve") && i + 1 < args.length) {
+                serve = Integer.parseInt(args[++i]);
+            }
+            else if (arg.equals("--work") && i + 1 < args.length) {
+                work = args[++i];
+            }
+            else if (arg.equals("--help") || arg.equals("-h")) {
+                System.out.println("usage: SudokuCli [--grade | --verify] [--jmx] [--portfolio] [--timeout ms] [--checkpoint file] [--store file [--store-size records]] [file...]");
+                System.out.println("       SudokuCli --resume file");
+                System.out.println("       SudokuCli --serve port [file]");
+                System.out.println("       SudokuCli --work host:port");
+                System.out.println("Solves each puzzle read from the files, or from standard input if there are none.");
+                System.out.println("  --grade       print the hardest technique and score of each puzzle instead of its solution");
+                System.out.println("  --verify      read lines of [puzzle] solution and print whether each solution is correct");
+                System.out.println("  --jmx         publish solver metrics as the MBean " + SolverMetrics.OBJECT_NAME);
+                System.out.println("  --portfolio   race two engines on each puzzle that needs a search, trimming the slowest solves");
+                System.out.println("  --timeout ms  give up on a puzzle after searching for this many milliseconds");
+                System.out.println("  --checkpoint  save the search of the puzzle being solved to a file every "
+                        + CHECKPOINT_INTERVAL / 1000 + " seconds");
+                System.out.println("  --store       look puzzles up in a solution store file before solving them, and add new ones");
+                System.out.println("  --store-size  most puzzles a new solution store can hold, default " + STORE_CAPACITY);
+                System.out.println("  --resume      continue the search saved in a checkpoint file, checkpointing to it as it goes");
+                System.out.println("  --serve       count the solutions of the first puzzle with workers that connect to this port");
+                System.out.println("  --work        search for the coordinator at host:port until it has nothing left");
+                return;
+            }
+            else {
+                files.add(arg);
+            }
+        }
+        if (work != null) {
+            int colon = work.lastIndexOf(':');
+            long units = new SearchWorker(work.substring(0, colon), Integer.parseInt(work.substring(colon + 1))).work();
+            System.out.println("searched " + units + " units");
+            return;
+        }
+        if (serve >= 0) {
+            try (BufferedReader in = files.isEmpty() ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Paths.get(files.get(0)), StandardCharsets.UTF_8)) {
+                serve(in, serve);
+            }
+            return;
+        }
+        SudokuModel model = new SudokuModel((subject, data) -> { });
+        model.setVerbose(false);
+        model.setTimeLimit(timeLimit);
+        model.setPortfolio(portfolio);
+        if (jmx) {
+            SolverMetrics.register();
+        }
+        PrintWriter out = new PrintWriter(System.out);
+        if (resume != null) {
+            setCheckpoint(model, resume);
+            Board sol = null;
+            try {
+                sol = model.resume(resume);
+            }
+            catch (IOException | IllegalStateException e) {
+                System.err.println("error: cannot resume from " + resume + ": " + e);
+                System.exit(1);
+            }
+            setCheckpoint(model, null);
+            out.println(sol.boardFilled() ? digits(sol) : "no solution");
+            out.flush();
+            return;
+        }
+        setCheckpoint(model, checkpoint);
+        SolutionStore solutions = store == null ? null : setSolutionStore(model, store, storeSize);
+        DifficultyGrader grader = new DifficultyGrader();
+        if (files.isEmpty()) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            if (verify) {
+                verify(in, out);
+            }
+            else {
+                run(in, model, grade ? grader : null, out);
+            }
+        }
+        for (String file : files) {
+            try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+                if (verify) {
+                    verify(in, out);
+                }
+                else {
+                    run(in, model, grade ? grader : null, out);
+                }
+            }
+        }
+        setCheckpoint(model, null);
+        if (solutions != null) {
+            solutions.close();
+        }
+        out.flush();
+    }
+
+    /**
+     * Starts or stops checkpointing, exiting with an error if a checkpoint cannot be written
+     * @param model model whose searches are checkpointed
+     * @param file  checkpoint file, or null to stop checkpointing
+     */
+    private static void setCheckpoint(SudokuModel model, Path file) {
+        try {
+            model.setCheckpoint(file, CHECKPOINT_INTERVAL);
+        }
+        catch (IOException e) {
+            System.err.println("error: cannot write checkpoint: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Opens a solution store for the model, exiting with an error if it cannot be used
+     * @param model     model that looks puzzles up in the store
+     * @param file      store file
+     * @param capacity  most records the store holds if it is created
+     * @return          the store
+     */
+    private static SolutionStore setSolutionStore(SudokuModel model, Path file, long capacity) {
+        try {
+            SolutionStore store = SolutionStore.open(file, capacity);
+            model.setSolutionStore(store);
+            return store;
+        }
+        catch (IOException | IllegalArgumentException e) {
+            System.err.println("error: cannot use solution store " + file + ": " + e);
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Solves or grades every puzzle from a reader
+     * @param in        puzzles, one per line
+     * @param model     model used to solve each puzzle
+     * @param grader    grader to use instead of solving, or null to solve
+     * @param out       where to print one result line per puzzle
+     * @throws IOException  if the puzzles cannot be read
+     */
+    private static void run(BufferedReader in, SudokuModel model, DifficultyGrader grader, PrintWriter out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.length() != 81) {
+                out.println("error: expected 81 cells but found " + line.length());
+            }
+            else if (grader != null) {
+                out.println(grader.grade(line));
+            }
+            else {
+                out.println(solve(line, model));
+            }
+        }
+    }
+
+    /**
+     * Checks solutions from a reader in batches, printing ok or wrong for each
+     * @param in    one solution per line, optionally after its puzzle and whitespace
+     * @param out   where to print one result line per solution
+     * @throws IOException  if the solutions cannot be read
+     */
+    private static void verify(BufferedReader in, PrintWriter out) throws IOException {
+        byte[] puzzles = new byte[VERIFY_BATCH * SolutionVerifier.CELLS];
+        byte[] solutions = new byte[VERIFY_BATCH * SolutionVerifier.CELLS];
+        boolean[] results = new boolean[VERIFY_BATCH];
+        int count = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            String solution = fields[fields.length - 1];
+            if (fields.length > 2 || solution.length() != 81 || fields[0].length() != 81) {
+                count = printVerified(puzzles, solutions, count, results, out);
+                out.println("error: expected a solution of 81 cells, optionally after its puzzle");
+                continue;
+            }
+            byte[] puzzle = fields.length == 2 ? SolutionVerifier.pack(fields[0]) : new byte[SolutionVerifier.CELLS];
+            System.arraycopy(puzzle, 0, puzzles, count * SolutionVerifier.CELLS, SolutionVerifier.CELLS);
+            System.arraycopy(SolutionVerifier.pack(solution), 0, solutions, count * SolutionVerifier.CELLS, SolutionVerifier.CELLS);
+            if (++count == VERIFY_BATCH) {
+                count = printVerified(puzzles, solutions, count, results, out);
+            }
+        }
+        printVerified(puzzles, solutions, count, results, out);
+    }
+
+    /**
+     * Checks a batch of solutions and prints the results
+     * @param puzzles   packed puzzles, 0 for cells that are not givens
+     * @param solutions packed solutions
+     * @param count     number of solutions in the batch
+     * @param results   room for the result of each solution
+     * @param out       where to print one result line per solution
+     * @return          0, the size of the next batch
+     */
+    private static int printVerified(byte[] puzzles, byte[] solutions, int count, boolean[] results, PrintWriter out) {
+        SolutionVerifier.verifyAll(puzzles, solutions, count, results);
+        for (int i = 0; i < count; i++) {
+            out.println(results[i] ? "ok" : "wrong");
+        }
+        return 0;
+    }
+
+    /**
+     * Counts the solutions of the first puzzle from a reader with workers in other processes
+     * @param in    puzzles, one per line
+     * @param port  port workers connect to, 0 for any free port
+     * @throws IOException  if the puzzle cannot be read or the port cannot be bound
+     */
+    private static void serve(BufferedReader in, int port) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null && (line.trim().isEmpty() || line.trim().startsWith("#"))) {
+            //skip to the first puzzle
+        }
+        if (line == null || line.trim().length() != 81) {
+            System.out.println("error: expected a puzzle of 81 cells");
+            return;
+        }
+        try (SearchCoordinator coordinator = new SearchCoordinator(Board.parse(line.trim()), SearchCoordinator.DEFAULT_UNITS)) {
+            coordinator.start(port);
+            System.err.println("waiting for workers on port " + coordinator.getPort());
+            long solutions = coordinator.await();
+            Board solution = coordinator.getSolution();
+            System.out.println(solutions + " solutions" + (solution != null ? ", first " + digits(solution) : ""));
+            System.out.println(coordinator.getSteals() + " steals, " + coordinator.getReassigned() + " units reassigned");
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solves one puzzle
+     * @param puzzle    puzzle written as 81 characters
+     * @param model     model to solve it with
+     * @return          the solution as 81 digits, or a message if there is none
+     */
+    private static String solve(String puzzle, SudokuModel model) {
+        model.reset();
+        for (int cell = 0; cell < 81; cell++) {
+            char ch = puzzle.charAt(cell);
+            if (ch >= '1' && ch <= '9') {
+                model.getBoard().addNumber(ch - '0', cell / 9, cell % 9);
+            }
+        }
+        if (!model.getBoard().isValid()) {
+            return "invalid: conflicts at " + model.getBoard().getConflicts();
+        }
+        model.solve();
+        if (!model.getBoard().boardFilled()) {
+            return "no solution";
+        }
+        if (!SolutionVerifier.verify(model.getVariant(), SolutionVerifier.pack(puzzle), SolutionVerifier.pack(model.getBoard()))) {
+            return "error: solution failed verification";
+        }
+        return digits(model.getBoard());
+    }
+
+    /**
+     * Writes out a board
+     * @param board board to write
+     * @return      the value of each cell as 81 digits
+     */
+    private static String digits(Board board) {
+        StringBuilder str = new StringBuilder();
+        for (Node[] nodes : board.getBoard()) {
+            for (Node n : nodes) {
+                str.append(n.getVal());
+            }
+        }
+        return str.toString();
+    }
+}
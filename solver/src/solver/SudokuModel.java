@@ -0,0 +1,741 @@
+package solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Model class for sudoku solver. Stores information of a sudoku board.
+ */
+
+public class SudokuModel {
+    private Board board; //board representation
+    private Variant variant = Variant.CLASSIC; //constraints of the puzzle being solved
+    private final SudokuObserver<SudokuModel, SudokuModelData> observer; //model's observer, this will be the GUI
+    private final TranspositionTable failedStates; //hashes of boards known to have no solution
+    private boolean probing; //true if failedStates can hold boards of this search, only then is it looked up
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 16; //default number of failed states to remember
+    private long nodes; //boards searched during the current solve
+    private long backtracks; //subtrees without a solution during the current solve
+    private int subtreeEventDepth = 2; //deepest layer whose subtrees are reported to flight recorder
+    private Engine engine = Engine.BACKTRACKING; //engine chosen for the current solve
+    private boolean portfolio; //true to race two engines instead of using the chosen one
+    private boolean verbose = true; //true to print the search as it runs
+    private long timeLimit; //most nanoseconds a solve may search, 0 for no limit
+    private long deadline; //System.nanoTime() at which the current solve gives up, only used with a time limit
+    private static final int CHECKPOINT_MASK = (1 << 10) - 1; //the clock is read for a checkpoint every 1024 boards
+    private CheckpointWriter checkpoints; //writes snapshots of the search, null when not checkpointing
+    private long checkpointInterval; //nanoseconds between snapshots
+    private long nextCheckpoint; //System.nanoTime() at which the next snapshot is due
+    private byte[] searchRoot; //values of the board the current search branched from, kept for snapshots
+    private final int[] path = new int[81]; //successor index being searched at each layer
+    private Checkpoint replay; //snapshot being resumed, null once the search has reached it
+    private int replayLayer; //next layer whose successors are skipped up to the snapshot's path
+    private SolutionStore store; //solutions of earlier classic puzzles, null if none
+    private volatile boolean cancelled; //true once another engine has won the race this model searches in
+    private static final ExecutorService PORTFOLIO = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sudoku-portfolio");
+        thread.setDaemon(true);
+        return thread;
+    }); //threads racing engines, shared by every model
+
+    public SudokuModel(SudokuObserver<SudokuModel, SudokuModelData> observer) {
+        this(observer, DEFAULT_TABLE_CAPACITY);
+    }
+
+    public SudokuModel(SudokuObserver<SudokuModel, SudokuModelData> observer, int tableCapacity) {
+        this.observer = observer;
+        this.failedStates = new TranspositionTable(tableCapacity);
+        this.board = new Board(this);
+    }
+
+    /**
+     * This constructor makes a model that searches for another model on a separate thread, sharing its table of
+     * failed states so each engine can skip the dead ends the other has already found
+     * @param parent    model whose board is being solved
+     * @param engine    engine to search with
+     */
+    private SudokuModel(SudokuModel parent, Engine engine) {
+        this.observer = parent.observer;
+        this.variant = parent.variant;
+        this.failedStates = parent.failedStates;
+        this.probing = true;
+        this.subtreeEventDepth = parent.subtreeEventDepth;
+        this.engine = engine;
+        this.verbose = parent.verbose;
+        this.timeLimit = parent.timeLimit;
+        this.deadline = parent.deadline;
+        this.board = parent.board;
+    }
+
+    /**
+     * Forms string representation of the board
+     * @return  board as string
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                str.append(board.getBoard()[r][c].toString());
+            }
+            str.append("\n");
+        }
+        return str.toString();
+    }
+
+    /**
+     * Board accessor
+     * @return  board representation
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Determines the square of a certain location
+     * @param row   row
+     * @param col   column
+     * @return      square that this row and column coordinate is in
+     */
+    public int determineSquare(int row, int col) {
+        if (row < 3) {
+            return (col / 3);
+        }
+        else if (row < 6) {
+            return 3 + (col / 3);
+        }
+        else {
+            return 6 + (col / 3);
+        }
+    }
+
+    /**
+     * Ensures that the display shows every number once a solution is found
+     * @param sol   solution board
+     */
+    public void fillBoard(Board sol) {
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (board.getBoard()[r][c].getVal() == 0) {
+                    board.addNumber(sol.getBoard()[r][c].getVal(), r, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all numbers from the display and model
+     */
+    public void reset() {
+        this.board = new Board(this);
+    }
+
+    /**
+     * Solves the current board. Boards whose numbers already conflict are rejected without searching or being counted.
+     */
+    public void solve() {
+        trace("trying to solve on layer 0", this);
+        if (!board.isValid()) {
+            trace("board has conflicts at " + board.getConflicts(), null);
+            return;
+        }
+        SolverMetrics.METRICS.solves.increment();
+        long start = startClock();
+        byte[] givens = store != null && board.getVariant() == Variant.CLASSIC ? Checkpoint.values(board) : null;
+        if (givens != null) {
+            byte[] known = store.get(givens);
+            if (known != null) {
+                trace("found in solution store", null);
+                engine = Engine.STORE;
+                fillBoard(SearchProtocol.toBoard(known));
+                stopClock(start, true);
+                return;
+            }
+        }
+        int clues = countClues(board);
+        SolveEvent solveEvent = SolverEvents.solveEnabled() ? new SolveEvent() : null;
+        if (solveEvent != null) {
+            solveEvent.begin();
+            solveEvent.clues = clues;
+        }
+        nodes = 1;
+        backtracks = 0;
+        propagate(board, true, 0);
+        engine = EngineSelector.select(board, clues);
+        if (SolverEvents.engineSelectionEnabled()) {
+            EngineSelectionEvent engineEvent = new EngineSelectionEvent();
+            engineEvent.engine = engine.name();
+            engineEvent.clues = clues;
+            engineEvent.empty = EngineSelector.countEmpty(board);
+            engineEvent.entropy = EngineSelector.candidateEntropy(board);
+            engineEvent.portfolio = portfolio;
+            engineEvent.commit();
+        }
+        if (engine != Engine.PROPAGATION) {
+            Board sol = portfolio ? race(board) : searchChildren(board, 0);
+            if (sol != null) {
+                fillBoard(sol);
+                for (int r = 0; r < 9; r++) {
+                    for (int c = 0; c < 9; c++) {
+                        if (board.getBoard()[r][c].determined() && board.getBoard()[r][c].getVal() == 0) {
+                            board.addNumber(board.getBoard()[r][c].getPossibility(), r, c);
+                        }
+                    }
+                }
+            }
+        }
+        stopClock(start, board.boardFilled());
+        if (givens != null && board.boardFilled()) {
+            byte[] solution = Checkpoint.values(board);
+            if (SolutionVerifier.verify(Variant.CLASSIC, givens, solution)) {
+                store.put(givens, solution);
+            }
+            else {
+                trace("solution does not check out, not storing it", board);
+            }
+        }
+        if (solveEvent != null) {
+            solveEvent.nodes = nodes;
+            solveEvent.backtracks = backtracks;
+            solveEvent.solved = board.boardFilled();
+            solveEvent.commit();
+        }
+    }
+
+    /**
+     * Enumerates every solution of the current board without changing it or the display
+     * @return  lazy stream of solved boards, call parallel() to search on several threads
+     */
+    public Stream<Board> solutions() {
+        return SolutionSpliterator.stream(board);
+    }
+
+    /**
+     * Recursively solves the board, recording a flight recorder event for subtrees near the root
+     * @param grid  successor to try solving
+     * @param layer level of recursion
+     * @return      solution board
+     */
+    public Board solve (Board grid, int layer) {
+        long start = 0;
+        if (layer == 0) {
+            SolverMetrics.METRICS.solves.increment();
+            start = startClock();
+        }
+        SubtreeEvent event = null;
+        if (layer <= subtreeEventDepth && SolverEvents.subtreeEnabled()) {
+            event = new SubtreeEvent();
+            event.begin();
+        }
+        long startNodes = nodes;
+        long startBacktracks = backtracks;
+        Board sol = search(grid, layer);
+        if (!sol.boardFilled()) {
+            backtracks++;
+            SolverMetrics.METRICS.backtracks.increment();
+        }
+        if (layer == 0) {
+            stopClock(start, sol.boardFilled());
+        }
+        if (event != null) {
+            event.layer = layer;
+            event.nodes = nodes - startNodes;
+            event.backtracks = backtracks - startBacktracks;
+            event.solved = sol.boardFilled();
+            event.commit();
+        }
+        return sol;
+    }
+
+    /**
+     * Searches the subtree below a successor
+     * @param grid  successor to try solving
+     * @param layer level of recursion
+     * @return      solution board, or a board that is not filled if there is no solution
+     */
+    private Board search(Board grid, int layer) {
+        trace("trying to solve on layer " + layer, grid);
+        nodes++;
+        SolverMetrics.METRICS.nodes.increment();
+        if (replay != null && layer == replay.getPath().length) {
+            checkReplay(grid);
+        }
+        else if (checkpoints != null && layer > 0 && (nodes & CHECKPOINT_MASK) == 0 && System.nanoTime() - nextCheckpoint > 0) {
+            nextCheckpoint = System.nanoTime() + checkpointInterval;
+            checkpoints.save(new Checkpoint(engine, searchRoot, Arrays.copyOf(path, layer), Checkpoint.values(grid), nodes, backtracks));
+        }
+        if (probing && failedStates.contains(grid.getHash())) {
+            SolverMetrics.METRICS.cacheHits.increment();
+            return grid;
+        }
+        Board board = new Board(grid.getBoard(), grid.getVariant());
+        propagate(board, false, layer);
+        if (board.boardFilled()) {
+            return board;
+        }
+        else if (probing && failedStates.contains(board.getHash())) {
+            SolverMetrics.METRICS.cacheHits.increment();
+            failedStates.add(grid.getHash());
+            return board;
+        }
+        Board sol = searchChildren(board, layer);
+        if (sol != null || stopped()) {
+            return sol != null ? sol : board;
+        }
+        failedStates.add(grid.getHash());
+        failedStates.add(board.getHash());
+        return board;
+    }
+
+    /**
+     * Searches each valid successor of a board in turn, stopping early if the thread is interrupted, the race is lost
+     * or time is up
+     * @param board board to branch from
+     * @param layer level of recursion of the board
+     * @return      solution board, or null if no successor leads to a solution
+     */
+    private Board searchChildren(Board board, int layer) {
+        Collection<Board> children = engine == Engine.MOST_CONSTRAINED ? board.getSuccessorsMostConstrained() : board.getSuccessors();
+        if (layer == 0 && checkpoints != null && replay == null) {
+            searchRoot = Checkpoint.values(board);
+            nextCheckpoint = System.nanoTime() + checkpointInterval;
+        }
+        boolean replaying = replay != null && layer == replayLayer && layer < replay.getPath().length;
+        int skip = 0; //successors already searched before the snapshot being resumed
+        if (replaying) {
+            skip = replay.getPath()[layer];
+            replayLayer++;
+        }
+        int index = 0;
+        for (Board child : children) {
+            if (index < skip) {
+                index++;
+                continue;
+            }
+            if (stopped()) {
+                return null;
+            }
+            path[layer] = index++;
+            if (child.isValid()) {
+                trace("board", board);
+                trace("child", child);
+                Board sol = solve(child, layer + 1);
+                if (sol.boardFilled()) {
+                    return sol;
+                }
+            }
+            else {
+                SolverMetrics.METRICS.contradictions.increment();
+            }
+            if (replaying) {
+                //the snapshot's subtree is done, the rest of the search runs as normal
+                replaying = false;
+                replay = null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks that resuming from a snapshot rebuilt the board it was taken at
+     * @param grid  board at the end of the snapshot's path
+     */
+    private void checkReplay(Board grid) {
+        if (!Arrays.equals(Checkpoint.values(grid), replay.getBoard())) {
+            throw new IllegalStateException("checkpoint does not match the search, it was taken with a different variant");
+        }
+    }
+
+    /**
+     * Snapshots the search from solve to a file every so often, so it can be resumed after a restart.
+     * Portfolio races are not snapshotted. The file is deleted once a search finishes without being stopped.
+     * Snapshots are written in the background, so a failed write is only reported when checkpointing is next set.
+     * @param file      checkpoint file, or null to stop checkpointing
+     * @param millis    milliseconds between snapshots
+     * @throws IOException  if a write to the previous checkpoint file failed, or the new one cannot be written
+     */
+    public void setCheckpoint(Path file, long millis) throws IOException {
+        if (file != null && millis <= 0) {
+            throw new IllegalArgumentException("checkpoint interval must be positive: " + millis);
+        }
+        CheckpointWriter previous = checkpoints;
+        checkpoints = null;
+        checkpointInterval = millis * 1_000_000;
+        if (previous != null) {
+            previous.close();
+        }
+        if (file != null) {
+            checkpoints = new CheckpointWriter(file);
+        }
+    }
+
+    /**
+     * Continues a search from a checkpoint file, skipping every successor it had already searched.
+     * The board is rebuilt with this model's variant, which must be the one the checkpoint was taken with.
+     * Checkpointing carries on if setCheckpoint was called.
+     * @param file  checkpoint file
+     * @return      solution board, or a board that is not filled if there is no solution or the search was stopped
+     * @throws IOException  if the file cannot be read or is not a checkpoint
+     */
+    public Board resume(Path file) throws IOException {
+        Checkpoint checkpoint = CheckpointWriter.load(file);
+        Board root = new Board(this);
+        for (int cell = 0; cell < 81; cell++) {
+            if (checkpoint.getRoot()[cell] != 0) {
+                root.addNumberBacktracking(checkpoint.getRoot()[cell], cell / 9, cell % 9);
+            }
+        }
+        SolverMetrics.METRICS.solves.increment();
+        long start = startClock();
+        engine = checkpoint.getEngine();
+        nodes = checkpoint.getNodes();
+        backtracks = checkpoint.getBacktracks();
+        searchRoot = checkpoint.getRoot();
+        nextCheckpoint = System.nanoTime() + checkpointInterval;
+        replay = checkpoint.getPath().length == 0 ? null : checkpoint;
+        replayLayer = 0;
+        Board sol;
+        try {
+            sol = searchChildren(root, 0);
+        }
+        finally {
+            replay = null;
+        }
+        stopClock(start, sol != null);
+        return sol != null ? sol : root;
+    }
+
+    /**
+     * Checks whether the search should give up
+     * @return  true if the thread is interrupted, another engine won the race or the time limit has passed
+     */
+    private boolean stopped() {
+        return Thread.currentThread().isInterrupted() || cancelled || (timeLimit != 0 && System.nanoTime() - deadline > 0);
+    }
+
+    /**
+     * Starts timing a solve and its time limit. The transposition table is only looked up if an earlier solve
+     * left failed states in it, since a single search never reaches the same board twice.
+     * @return  start time of the solve
+     */
+    private long startClock() {
+        probing = failedStates.getStores() != 0;
+        long start = System.nanoTime();
+        deadline = start + timeLimit;
+        return start;
+    }
+
+    /**
+     * Records the latency of a finished solve, and whether it was stopped early
+     * @param start     start time of the solve
+     * @param solved    true if a solution was found
+     */
+    private void stopClock(long start, boolean solved) {
+        long now = System.nanoTime();
+        SolverMetrics.METRICS.recordLatency(engine, now - start);
+        if (checkpoints != null) {
+            if (solved || !stopped()) {
+                checkpoints.clear();
+            }
+            if (checkpoints.getError() != null) {
+                trace("checkpoint write failed: " + checkpoints.getError(), null);
+            }
+        }
+        if (!solved) {
+            if (timeLimit != 0 && now - deadline > 0) {
+                SolverMetrics.METRICS.timeouts.increment();
+            }
+            else if (Thread.currentThread().isInterrupted()) {
+                SolverMetrics.METRICS.aborts.increment();
+            }
+        }
+    }
+
+    /**
+     * Races the backtracking and most constrained engines on separate threads, then cancels the slower one and waits
+     * for it to stop so its counts can be added to this model's. The winner becomes this model's engine, so the
+     * solve's latency is recorded under the engine that found the answer.
+     * @param board board after propagation
+     * @return      solution board, or null if there is no solution
+     */
+    private Board race(Board board) {
+        SudokuModel[] racers = {new SudokuModel(this, Engine.BACKTRACKING), new SudokuModel(this, Engine.MOST_CONSTRAINED)};
+        CountDownLatch finished = new CountDownLatch(racers.length);
+        CompletionService<Board> results = new ExecutorCompletionService<>(PORTFOLIO);
+        List<Future<Board>> futures = new ArrayList<>();
+        for (SudokuModel racer : racers) {
+            futures.add(results.submit(() -> {
+                try {
+                    Board sol = racer.searchChildren(board, 0);
+                    if (sol == null && racer.cancelled) {
+                        throw new CancellationException(racer.engine + " engine was cancelled");
+                    }
+                    return sol == null ? board : sol;
+                }
+                finally {
+                    finished.countDown();
+                }
+            }));
+        }
+        try {
+            Future<Board> first = results.take();
+            engine = racers[futures.indexOf(first)].engine;
+            Board sol = first.get();
+            return sol.boardFilled() ? sol : null;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("portfolio search failed", e.getCause());
+        }
+        finally {
+            for (SudokuModel racer : racers) {
+                racer.cancelled = true;
+            }
+            boolean interrupted = false;
+            while (finished.getCount() > 0) {
+                try {
+                    finished.await();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (SudokuModel racer : racers) {
+                nodes += racer.nodes;
+                backtracks += racer.backtracks;
+            }
+        }
+    }
+
+    /**
+     * Places naked and hidden singles until no more can be found
+     * @param board     board to fill in
+     * @param display   true to show the placements on the display, false while backtracking
+     * @param layer     level of recursion
+     * @return          number of values placed
+     */
+    private int propagate(Board board, boolean display, int layer) {
+        SolverMetrics.METRICS.propagations.increment();
+        PropagationEvent event = SolverEvents.propagationEnabled() ? new PropagationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        int[] singles = new int[board.getVariant().getUnits().length * 9]; //hidden singles found in each pass
+        int placed = 0;
+        boolean solving = true;
+        while (solving) {
+            solving = false;
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 9; c++) {
+                    if (board.getBoard()[r][c].determined() && board.getBoard()[r][c].getVal() == 0) {
+                        place(board, board.getBoard()[r][c].getPossibility(), r, c, display);
+                        placed++;
+                        solving = true;
+                    }
+                }
+            }
+            int count = CandidateKernel.hiddenSingles(board.getVariant().getUnits(), CandidateKernel.candidateMasks(board), singles);
+            for (int i = 0; i < count; i++) {
+                int r = CandidateKernel.cellOf(singles[i]) / 9;
+                int c = CandidateKernel.cellOf(singles[i]) % 9;
+                int val = CandidateKernel.valueOf(singles[i]);
+                if (board.getBoard()[r][c].getVal() == 0 && board.getBoard()[r][c].getPossibilities().contains(val)) {
+                    place(board, val, r, c, display);
+                    placed++;
+                    solving = true;
+                }
+            }
+        }
+        if (event != null) {
+            event.layer = layer;
+            event.placed = placed;
+            event.commit();
+        }
+        return placed;
+    }
+
+    /**
+     * Places a number, showing it on the display if requested
+     * @param board     board to add the number to
+     * @param value     number to add
+     * @param row       row to add number in
+     * @param col       column to add number in
+     * @param display   true to update the display, false while backtracking
+     */
+    private void place(Board board, int value, int row, int col, boolean display) {
+        if (display) {
+            board.addNumber(value, row, col);
+        }
+        else {
+            board.addNumberBacktracking(value, row, col);
+        }
+    }
+
+    /**
+     * Counts the values already on a board
+     * @param board board to count
+     * @return      number of cells with a value
+     */
+    private static int countClues(Board board) {
+        int clues = 0;
+        for (Node[] nodes : board.getBoard()) {
+            for (Node n : nodes) {
+                if (n.getVal() != 0) {
+                    clues++;
+                }
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Nodes accessor
+     * @return  number of boards searched during the last solve
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Backtracks accessor
+     * @return  number of subtrees without a solution during the last solve
+     */
+    public long getBacktracks() {
+        return this.backtracks;
+    }
+
+    /**
+     * Turns the printed trace of the search on or off
+     * @param verbose   true to print each board as it is searched, false to solve silently
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Prints a step of the search when verbose, so boards are only turned into strings when they will be shown
+     * @param message   description of the step
+     * @param board     board to print after the message, or null for none
+     */
+    private void trace(String message, Object board) {
+        if (verbose) {
+            System.out.println(message);
+            if (board != null) {
+                System.out.println(board);
+            }
+        }
+    }
+
+    /**
+     * Engine accessor
+     * @return  engine chosen for the last solve, or the engine that won the race in portfolio mode
+     */
+    public Engine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Turns portfolio mode on or off, it is off by default. In portfolio mode, puzzles that need a search are given
+     * to two engines on separate threads and the first to finish wins. That trims the slowest solves, where the
+     * selected engine branches badly, but costs a second core and a thread handoff on every search, so batches of
+     * ordinary puzzles finish sooner without it.
+     * @param portfolio true to race engines, false to use the selected engine
+     */
+    public void setPortfolio(boolean portfolio) {
+        this.portfolio = portfolio;
+    }
+
+    /**
+     * Limits how long each solve may search. A solve that runs out of time leaves the board unsolved.
+     * @param millis    most milliseconds to search, 0 for no limit
+     */
+    public void setTimeLimit(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("time limit must not be negative: " + millis);
+        }
+        this.timeLimit = millis * 1_000_000;
+    }
+
+    /**
+     * Sets a store that solve() looks classic puzzles up in before searching, and adds new solutions to
+     * @param store store opened for writing, or null to always search
+     */
+    public void setSolutionStore(SolutionStore store) {
+        if (store != null && !store.isWritable()) {
+            throw new IllegalArgumentException("solution store must be opened for writing");
+        }
+        this.store = store;
+    }
+
+    /**
+     * Sets the deepest layer whose subtrees are reported to flight recorder
+     * @param depth deepest layer to report, 0 to report none
+     */
+    public void setSubtreeEventDepth(int depth) {
+        this.subtreeEventDepth = depth;
+    }
+
+    /**
+     * Gets the id of a button at a location. Buttons are numbered square by square, left to right and top to bottom
+     * within each square.
+     * @param row   button row
+     * @param col   button column
+     * @return      button id
+     */
+    public int getButtonID(int row, int col) {
+        return determineSquare(row, col) * 9 + (row % 3) * 3 + (col % 3);
+    }
+
+    /**
+     * Variant accessor
+     * @return  constraints of the puzzle being solved
+     */
+    public Variant getVariant() {
+        return this.variant;
+    }
+
+    /**
+     * Switches to a different variant, clearing the board and the failed states of the old variant
+     * @param variant   constraints of the next puzzle
+     */
+    public void setVariant(Variant variant) {
+        this.variant = variant;
+        this.failedStates.clear();
+        reset();
+    }
+
+    /**
+     * Transposition table accessor, used to read the hit rate when tuning the table size
+     * @return  table of failed board states
+     */
+    public TranspositionTable getTranspositionTable() {
+        return this.failedStates;
+    }
+
+    /**
+     * Observer accessor
+     * @return  observer
+     */
+    public SudokuObserver<SudokuModel, SudokuModelData> getObserver() {
+        return observer;
+    }
+}
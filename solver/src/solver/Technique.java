@@ -0,0 +1,30 @@
+package solver;
+
+/**
+ * Solving techniques used to grade puzzles, from easiest to hardest
+ * @author Will Mackin
+ */
+
+public enum Technique {
+    HIDDEN_SINGLE(1), //a value has only one possible cell in a unit
+    NAKED_SINGLE(2), //a cell has only one possible value
+    LOCKED_CANDIDATES(4), //a value in a square is confined to one line, or a value in a line to one square
+    NAKED_PAIR(6), //two cells of a unit share the same two possible values
+    HIDDEN_PAIR(8), //two values of a unit share the same two possible cells
+    X_WING(12), //a value is confined to the same two columns in two rows, or the same two rows in two columns
+    GUESS(50); //no technique applies, so the solver must guess and backtrack
+
+    private final int weight; //score added each time the technique is used
+
+    Technique(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Weight accessor
+     * @return  score added each time the technique is used
+     */
+    public int getWeight() {
+        return this.weight;
+    }
+}
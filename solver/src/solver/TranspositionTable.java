@@ -0,0 +1,148 @@
+package solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size table of board hashes that are known to have no solution.
+ * Each hash maps to a single slot and newer entries overwrite older ones, so the table never grows.
+ * One search never reaches the same board twice, since every branch fixes a different value of one cell,
+ * so the table only pays off when a model solves again or when two engines race on it. It is safe to share
+ * between threads for the race.
+ * @author Will Mackin
+ */
+
+public class TranspositionTable {
+    private final AtomicLongArray entries; //stored hashes, 0 when the slot is empty
+    private final int mask; //used to map a hash onto a slot
+    private final LongAdder probes = new LongAdder(); //number of lookups
+    private final LongAdder hits = new LongAdder(); //number of lookups that found their hash
+    private final LongAdder stores = new LongAdder(); //number of hashes added
+    private final LongAdder overwrites = new LongAdder(); //number of stores that replaced a different hash
+
+    /**
+     * Makes a table with room for at least the given number of entries
+     * @param capacity  minimum number of slots, rounded up to a power of two
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.entries = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Checks if a board state has already been shown to be unsolvable
+     * @param hash  zobrist hash of the board
+     * @return      true if the state is in the table, otherwise false
+     */
+    public boolean contains(long hash) {
+        probes.increment();
+        if (hash != 0 && entries.get(slot(hash)) == hash) {
+            hits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a board state as unsolvable
+     * @param hash  zobrist hash of the board
+     */
+    public void add(long hash) {
+        if (hash == 0) {
+            return;
+        }
+        long old = entries.getAndSet(slot(hash), hash);
+        if (old != 0 && old != hash) {
+            overwrites.increment();
+        }
+        stores.increment();
+    }
+
+    /**
+     * Empties the table and resets its statistics
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0);
+        }
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        overwrites.reset();
+    }
+
+    /**
+     * Maps a hash onto a slot, mixing in the high bits since the low bits alone index the table
+     * @param hash  zobrist hash of the board
+     * @return      slot index
+     */
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Capacity accessor
+     * @return  number of slots in the table
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Probes accessor
+     * @return  number of lookups
+     */
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    /**
+     * Hits accessor
+     * @return  number of lookups that found a known unsolvable state
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Stores accessor
+     * @return  number of states added
+     */
+    public long getStores() {
+        return this.stores.sum();
+    }
+
+    /**
+     * Overwrites accessor
+     * @return  number of states lost because their slot was reused
+     */
+    public long getOverwrites() {
+        return this.overwrites.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups that were hits
+     * @return  hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long lookups = getProbes();
+        return lookups == 0 ? 0 : (double) getHits() / lookups;
+    }
+
+    /**
+     * Gives a string representation of the table statistics
+     * @return  statistics as string
+     */
+    @Override
+    public String toString() {
+        return "TranspositionTable[capacity=" + getCapacity() + ", probes=" + getProbes() + ", hits=" + getHits()
+                + ", stores=" + getStores() + ", overwrites=" + getOverwrites() + "]";
+    }
+}
@@ -0,0 +1,166 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * The constraints of a sudoku variant, compiled into flat tables for the solver.
+ * Every variant has the classic rows, columns and squares, and may add extra units (groups of 9 cells
+ * holding each value once) and killer cages. Cells are indexed in row major order.
+ * @author Will Mackin
+ */
+
+public class Variant {
+    public static final Variant CLASSIC = new Variant(new int[0][], new Cage[0]);
+    public static final Variant DIAGONAL = new Variant(diagonals(), new Cage[0]);
+    public static final Variant WINDOKU = new Variant(windows(), new Cage[0]);
+
+    private final int[][] units; //every unit, classic units first
+    private final int[][] peers; //cells that share a unit or cage with each cell
+    private final Cage[] cages; //killer cages
+    private final int[] cageOf; //index of the cage each cell is in, -1 if none
+
+    /**
+     * Compiles a variant
+     * @param extraUnits    units in addition to the classic ones, each with 9 cells
+     * @param cages         killer cages, no cell may be in more than one
+     */
+    public Variant(int[][] extraUnits, Cage[] cages) {
+        this.units = new int[27 + extraUnits.length][];
+        for (int i = 0; i < 27; i++) {
+            this.units[i] = CandidateKernel.UNITS[i];
+        }
+        for (int i = 0; i < extraUnits.length; i++) {
+            if (extraUnits[i].length != 9) {
+                throw new IllegalArgumentException("unit must have 9 cells: " + Arrays.toString(extraUnits[i]));
+            }
+            this.units[27 + i] = extraUnits[i].clone();
+        }
+        this.cages = cages.clone();
+        this.cageOf = new int[81];
+        Arrays.fill(cageOf, -1);
+        for (int i = 0; i < cages.length; i++) {
+            for (int cell : cages[i].getCells()) {
+                if (cageOf[cell] != -1) {
+                    throw new IllegalArgumentException("cell " + cell + " is in more than one cage");
+                }
+                cageOf[cell] = i;
+            }
+        }
+        this.peers = makePeers();
+    }
+
+    /**
+     * Makes a killer sudoku variant
+     * @param cages killer cages
+     * @return      variant with the classic units and the given cages
+     */
+    public static Variant killer(Cage... cages) {
+        return new Variant(new int[0][], cages);
+    }
+
+    /**
+     * Collects the peers of every cell from the units and cages
+     * @return  sorted peer indices for each cell
+     */
+    private int[][] makePeers() {
+        ArrayList<TreeSet<Integer>> sets = new ArrayList<>();
+        for (int cell = 0; cell < 81; cell++) {
+            sets.add(new TreeSet<>());
+        }
+        ArrayList<int[]> groups = new ArrayList<>(Arrays.asList(units));
+        for (Cage cage : cages) {
+            groups.add(cage.getCells());
+        }
+        for (int[] group : groups) {
+            for (int a : group) {
+                for (int b : group) {
+                    if (a != b) {
+                        sets.get(a).add(b);
+                    }
+                }
+            }
+        }
+        int[][] table = new int[81][];
+        for (int cell = 0; cell < 81; cell++) {
+            table[cell] = new int[sets.get(cell).size()];
+            int i = 0;
+            for (int peer : sets.get(cell)) {
+                table[cell][i++] = peer;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Makes the two main diagonals used by X-Sudoku
+     * @return  diagonal units
+     */
+    private static int[][] diagonals() {
+        int[][] diagonals = new int[2][9];
+        for (int i = 0; i < 9; i++) {
+            diagonals[0][i] = i * 9 + i;
+            diagonals[1][i] = i * 9 + (8 - i);
+        }
+        return diagonals;
+    }
+
+    /**
+     * Makes the four extra 3x3 windows used by Windoku
+     * @return  window units
+     */
+    private static int[][] windows() {
+        int[][] windows = new int[4][9];
+        for (int w = 0; w < 4; w++) {
+            int top = (w / 2) * 4 + 1;
+            int left = (w % 2) * 4 + 1;
+            for (int i = 0; i < 9; i++) {
+                windows[w][i] = (top + i / 3) * 9 + left + i % 3;
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Units accessor
+     * @return  every unit that must hold each value once
+     */
+    public int[][] getUnits() {
+        return this.units;
+    }
+
+    /**
+     * Gets the peers of a cell
+     * @param cell  cell index
+     * @return      cells that cannot share a value with this cell
+     */
+    public int[] getPeers(int cell) {
+        return this.peers[cell];
+    }
+
+    /**
+     * Cages accessor
+     * @return  killer cages
+     */
+    public Cage[] getCages() {
+        return this.cages;
+    }
+
+    /**
+     * Gets the cage a cell is in
+     * @param cell  cell index
+     * @return      cage, or null if the cell is not in a cage
+     */
+    public Cage getCage(int cell) {
+        return cageOf[cell] == -1 ? null : cages[cageOf[cell]];
+    }
+
+    /**
+     * Checks if this variant has killer cages
+     * @return  true if there is at least one cage, otherwise false
+     */
+    public boolean hasCages() {
+        return cages.length > 0;
+    }
+}
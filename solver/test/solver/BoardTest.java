@@ -0,0 +1,124 @@
+package solver;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests conflict localization as numbers are placed on the display board
+ * @author Will Mackin
+ */
+
+class BoardTest {
+    private Board board; //display board of a model without a GUI
+
+    @BeforeEach
+    void setUp() {
+        board = new SudokuModel((subject, data) -> { }).getBoard();
+    }
+
+    @Test
+    void numbersThatDoNotConflictAreNotFlagged() {
+        board.addNumber(5, 0, 0);
+        board.addNumber(3, 0, 1);
+        board.addNumber(7, 4, 4);
+        assertTrue(board.getConflicts().isEmpty());
+        assertTrue(board.isValid());
+    }
+
+    @Test
+    void duplicateFlagsBothNumbers() {
+        board.addNumber(4, 2, 0);
+        board.addNumber(4, 2, 8);
+        assertEquals(Set.of(18, 26), board.getConflicts());
+        assertFalse(board.isValid());
+    }
+
+    @Test
+    void emptiedCellIsFlaggedWithTheNumberThatEmptiedIt() {
+        for (int col = 1; col <= 8; col++) {
+            board.addNumber(col, 0, col);
+        }
+        assertTrue(board.getConflicts().isEmpty());
+        board.addNumber(9, 1, 1);
+        assertEquals(Set.of(0, 10), board.getConflicts());
+    }
+
+    @Test
+    void laterNumbersNextToAnEmptiedCellAreNotFlagged() {
+        for (int col = 1; col <= 8; col++) {
+            board.addNumber(col, 0, col);
+        }
+        board.addNumber(9, 1, 1);
+        board.addNumber(5, 5, 0);
+        board.addNumber(6, 2, 2);
+        assertEquals(Set.of(0, 10), board.getConflicts());
+    }
+
+    @Test
+    void clearingADuplicateDropsBothFlags() {
+        board.addNumber(4, 2, 0);
+        board.addNumber(4, 2, 8);
+        board.clearNumber(2, 8);
+        assertTrue(board.getConflicts().isEmpty());
+        assertTrue(board.isValid());
+        assertEquals(0, board.getBoard()[2][8].getVal());
+    }
+
+    @Test
+    void clearingTheNumberThatEmptiedACellDropsBothFlags() {
+        for (int col = 1; col <= 8; col++) {
+            board.addNumber(col, 0, col);
+        }
+        board.addNumber(9, 1, 1);
+        board.clearNumber(1, 1);
+        assertTrue(board.getConflicts().isEmpty());
+        assertEquals(List.of(9), board.getBoard()[0][0].getPossibilities());
+    }
+
+    @Test
+    void clearingKeepsConflictsElsewhere() {
+        board.addNumber(4, 2, 0);
+        board.addNumber(4, 2, 8);
+        board.addNumber(7, 6, 6);
+        board.clearNumber(6, 6);
+        assertEquals(Set.of(18, 26), board.getConflicts());
+        assertFalse(board.isValid());
+    }
+
+    @Test
+    void placingAndClearingMatchesABoardBuiltFromScratch() {
+        Random random = new Random(26);
+        int[] values = new int[81];
+        for (int step = 0; step < 2000; step++) {
+            int cell = random.nextInt(81);
+            if (values[cell] != 0) {
+                board.clearNumber(cell / 9, cell % 9);
+                values[cell] = 0;
+            }
+            if (random.nextInt(3) != 0) {
+                values[cell] = 1 + random.nextInt(9);
+                board.addNumber(values[cell], cell / 9, cell % 9);
+            }
+            Board rebuilt = new SudokuModel((subject, data) -> { }).getBoard();
+            for (int i = 0; i < 81; i++) {
+                if (values[i] != 0) {
+                    rebuilt.addNumber(values[i], i / 9, i % 9);
+                }
+            }
+            for (int i = 0; i < 81; i++) {
+                assertEquals(rebuilt.getBoard()[i / 9][i % 9].getPossibilities(), board.getBoard()[i / 9][i % 9].getPossibilities(),
+                        "possibilities of cell " + i + " at step " + step);
+            }
+            assertEquals(rebuilt.getHash(), board.getHash());
+            assertEquals(rebuilt.isValid(), board.isValid(), "validity at step " + step);
+        }
+    }
+}
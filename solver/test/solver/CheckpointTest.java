@@ -0,0 +1,110 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests writing checkpoints and resuming searches from them
+ * @author Will Mackin
+ */
+
+class CheckpointTest {
+    //a solved grid with its last four rows cleared, which leaves many solutions
+    private static final String OPEN = "534678912672195348198342567859761423426853791"
+            + "000000000000000000000000000000000000";
+    private static final int BRANCH = 45; //first empty cell of OPEN, where the backtracking engine branches
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        byte[] root = Checkpoint.values(Board.parse(OPEN));
+        Checkpoint written = new Checkpoint(Engine.MOST_CONSTRAINED, root, new int[]{2, 0, 7}, root, 12345, 678);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        written.write(new DataOutputStream(bytes));
+        assertTrue(bytes.size() <= 186);
+        Checkpoint read = Checkpoint.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(Engine.MOST_CONSTRAINED, read.getEngine());
+        assertArrayEquals(root, read.getRoot());
+        assertArrayEquals(new int[]{2, 0, 7}, read.getPath());
+        assertArrayEquals(root, read.getBoard());
+        assertEquals(12345, read.getNodes());
+        assertEquals(678, read.getBacktracks());
+    }
+
+    @Test
+    void rejectsDataThatIsNotACheckpoint() {
+        byte[] bytes = new byte[186];
+        assertThrows(IOException.class, () -> Checkpoint.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    void resumeSkipsSuccessorsSearchedBeforeTheSnapshot() throws IOException {
+        Board root = Board.parse(OPEN);
+        List<Board> children = new ArrayList<>(root.getSuccessors());
+        Path file = save(new Checkpoint(Engine.BACKTRACKING, Checkpoint.values(root), new int[]{1},
+                Checkpoint.values(children.get(1)), 1000, 10));
+        SudokuModel model = model();
+        Board sol = model.resume(file);
+        assertTrue(SolutionVerifier.verify(root, sol));
+        assertNotEquals(children.get(0).getBoard()[BRANCH / 9][BRANCH % 9].getVal(), sol.getBoard()[BRANCH / 9][BRANCH % 9].getVal());
+        assertTrue(model.getNodes() > 1000);
+    }
+
+    @Test
+    void resumeRejectsASnapshotThatDoesNotMatchItsPath() throws IOException {
+        Board root = Board.parse(OPEN);
+        List<Board> children = new ArrayList<>(root.getSuccessors());
+        Path file = save(new Checkpoint(Engine.BACKTRACKING, Checkpoint.values(root), new int[]{1},
+                Checkpoint.values(children.get(0)), 1000, 10));
+        assertThrows(IllegalStateException.class, () -> model().resume(file));
+    }
+
+    @Test
+    void resumeFromAMissingFileThrows() {
+        assertThrows(NoSuchFileException.class, () -> model().resume(dir.resolve("missing")));
+    }
+
+    /**
+     * Writes a checkpoint file
+     * @param checkpoint    checkpoint to write
+     * @return              the file
+     * @throws IOException  if writing fails
+     */
+    private Path save(Checkpoint checkpoint) throws IOException {
+        Path file = dir.resolve("search.ckpt");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            checkpoint.write(new DataOutputStream(out));
+        }
+        return file;
+    }
+
+    /**
+     * Makes a model without a GUI
+     * @return  the model
+     */
+    private static SudokuModel model() {
+        SudokuModel model = new SudokuModel((subject, data) -> { });
+        model.setVerbose(false);
+        return model;
+    }
+}
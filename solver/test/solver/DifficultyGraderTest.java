@@ -0,0 +1,98 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests grading puzzles by the hardest technique they need, with one puzzle of a single solution for each technique
+ * @author Will Mackin
+ */
+
+class DifficultyGraderTest {
+    private static final String HIDDEN_SINGLE = "097428650460000702820000309719080000008003204003560010170000003500002908000000060";
+    private static final String NAKED_SINGLE = "307600042200107650040903817120300060003800709906054138000090000000400200500700001";
+    private static final String LOCKED_CANDIDATES = "001900000600005010700000042000080205809002000000640108000001070510738904903006000";
+    private static final String NAKED_PAIR = "502070406600009082040000017004000250850004000260058170026107830000680041000030600";
+    private static final String HIDDEN_PAIR = "002870094703020008090054127005000710001000005060500940000008400000203000380000002";
+    private static final String X_WING = "600407310003001070100500240902005000000000950815630020080050796406098000000006000";
+    private static final String GUESS = "000580409007024005850900120008600790009478051740095000102009006080040937090000802";
+    private static final String SOLVED = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+    private final DifficultyGrader grader = new DifficultyGrader();
+
+    @Test
+    void findsTheHardestTechniqueEachPuzzleNeeds() {
+        assertGrade(Technique.HIDDEN_SINGLE, 46, 46, HIDDEN_SINGLE);
+        assertGrade(Technique.NAKED_SINGLE, 48, 44, NAKED_SINGLE);
+        assertGrade(Technique.LOCKED_CANDIDATES, 61, 53, LOCKED_CANDIDATES);
+        assertGrade(Technique.NAKED_PAIR, 64, 48, NAKED_PAIR);
+        assertGrade(Technique.HIDDEN_PAIR, 72, 54, HIDDEN_PAIR);
+        assertGrade(Technique.X_WING, 79, 52, X_WING);
+    }
+
+    @Test
+    void reportsWhenGuessingIsUnavoidable() {
+        DifficultyGrader.Grade grade = grader.grade(GUESS);
+        assertTrue(grade.isGuessRequired());
+        assertTrue(grade.isValid());
+        assertEquals(79, grade.getScore());
+        assertEquals(29, grade.getSteps());
+    }
+
+    @Test
+    void fullGridNeedsNoTechnique() {
+        DifficultyGrader.Grade grade = grader.grade(SOLVED);
+        assertNull(grade.getHardest());
+        assertEquals(0, grade.getScore());
+        assertTrue(grade.isValid());
+    }
+
+    @Test
+    void conflictingGivensAreInvalid() {
+        DifficultyGrader.Grade grade = grader.grade("11" + HIDDEN_SINGLE.substring(2));
+        assertFalse(grade.isValid());
+        assertEquals("INVALID", grade.toString());
+    }
+
+    @Test
+    void gradingABoardMatchesGradingItsDigits() {
+        assertEquals(grader.grade(X_WING).toString(), grader.grade(Board.parse(X_WING)).toString());
+    }
+
+    @Test
+    void gradeAllKeepsTheOrderOfThePuzzles() {
+        List<String> puzzles = List.of(X_WING, HIDDEN_SINGLE, GUESS, NAKED_PAIR, SOLVED);
+        List<DifficultyGrader.Grade> grades = DifficultyGrader.gradeAll(puzzles);
+        for (int i = 0; i < puzzles.size(); i++) {
+            assertEquals(grader.grade(puzzles.get(i)).toString(), grades.get(i).toString());
+        }
+    }
+
+    @Test
+    void rejectsAPuzzleOfTheWrongLength() {
+        assertThrows(IllegalArgumentException.class, () -> grader.grade("123"));
+    }
+
+    /**
+     * Grades a puzzle and checks the result
+     * @param hardest   expected hardest technique
+     * @param score     expected score
+     * @param steps     expected number of steps
+     * @param puzzle    puzzle to grade
+     */
+    private void assertGrade(Technique hardest, int score, int steps, String puzzle) {
+        DifficultyGrader.Grade grade = grader.grade(puzzle);
+        assertEquals(hardest, grade.getHardest(), puzzle);
+        assertEquals(score, grade.getScore(), puzzle);
+        assertEquals(steps, grade.getSteps(), puzzle);
+        assertFalse(grade.isGuessRequired());
+        assertTrue(grade.isValid());
+    }
+}
@@ -0,0 +1,94 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests counting solutions with workers on localhost, each on a thread of the test instead of a process
+ * @author Will Mackin
+ */
+
+@Timeout(60)
+class SearchCoordinatorTest {
+    //a solved grid with its last four rows cleared, which leaves many solutions
+    private static final String OPEN = "534678912672195348198342567859761423426853791"
+            + "000000000000000000000000000000000000";
+
+    @Test
+    void workersCountEverySolution() throws Exception {
+        long expected = SolutionSpliterator.stream(Board.parse(OPEN)).count();
+        try (SearchCoordinator coordinator = new SearchCoordinator(Board.parse(OPEN), 4)) {
+            coordinator.start(0);
+            List<Future<Long>> workers = startWorkers(coordinator.getPort(), 3);
+            assertEquals(expected, coordinator.await());
+            assertTrue(SolutionVerifier.verify(Board.parse(OPEN), coordinator.getSolution()));
+            for (Future<Long> worker : workers) {
+                worker.get();
+            }
+        }
+    }
+
+    @Test
+    void idleWorkersAreGivenSplitWork() throws Exception {
+        long expected = SolutionSpliterator.stream(Board.parse(OPEN)).count();
+        try (SearchCoordinator coordinator = new SearchCoordinator(Board.parse(OPEN), 1)) {
+            coordinator.start(0);
+            List<Future<Long>> workers = startWorkers(coordinator.getPort(), 3);
+            assertEquals(expected, coordinator.await());
+            for (Future<Long> worker : workers) {
+                assertTrue(worker.get() > 0, "a worker was left without work");
+            }
+        }
+    }
+
+    @Test
+    void unitOfADisconnectedWorkerIsSearchedByAnother() throws Exception {
+        long expected = SolutionSpliterator.stream(Board.parse(OPEN)).count();
+        try (SearchCoordinator coordinator = new SearchCoordinator(Board.parse(OPEN), 4)) {
+            coordinator.start(0);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), coordinator.getPort())) {
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeByte(SearchProtocol.REQUEST);
+                out.flush();
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                assertEquals(SearchProtocol.UNIT, in.readUnsignedByte());
+            }
+            startWorkers(coordinator.getPort(), 2);
+            assertEquals(expected, coordinator.await());
+            assertEquals(1, coordinator.getReassigned());
+        }
+    }
+
+    /**
+     * Runs workers on threads of their own
+     * @param port      coordinator port
+     * @param workers   number of workers
+     * @return          units each worker finished, once it has
+     */
+    private static List<Future<Long>> startWorkers(int port, int workers) {
+        ExecutorService threads = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "test-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            futures.add(threads.submit(() -> new SearchWorker("localhost", port).work()));
+        }
+        threads.shutdown();
+        return futures;
+    }
+}
@@ -0,0 +1,128 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests enumerating solutions, sequentially, split by hand and in parallel
+ * @author Will Mackin
+ */
+
+class SolutionSpliteratorTest {
+    private static final String HARD = "800000000003600000070090200050007000000045700000100030001000068008500010090000400"; //needs a deep search
+    private static final String SOLVED = "812753649943682175675491283154237896369845721287169534521974368438526917796318452"; //its solution
+    //a solved grid with its last four rows cleared, which leaves many solutions
+    private static final String OPEN = "534678912672195348198342567859761423426853791"
+            + "000000000000000000000000000000000000";
+
+    @Test
+    void puzzleWithOneSolutionStreamsOnlyThatSolution() {
+        List<String> solutions = SolutionSpliterator.stream(Board.parse(HARD)).map(SudokuModelTest::values).collect(Collectors.toList());
+        assertEquals(List.of(SOLVED), solutions);
+    }
+
+    @Test
+    void fullGridIsItsOwnSolutionAndCannotBeSplit() {
+        SolutionSpliterator spliterator = new SolutionSpliterator(Board.parse(SOLVED));
+        assertNull(spliterator.trySplit());
+        assertTrue(spliterator.tryAdvance(board -> assertEquals(SOLVED, SudokuModelTest.values(board))));
+        assertFalse(spliterator.tryAdvance(board -> { }));
+    }
+
+    @Test
+    void boardWithAConflictHasNoSolutions() {
+        Board conflicted = Board.parse("55" + HARD.substring(2));
+        assertNull(new SolutionSpliterator(conflicted).trySplit());
+        assertEquals(0, SolutionSpliterator.stream(conflicted).count());
+    }
+
+    @Test
+    void splittingPartitionsTheSolutions() {
+        Set<String> expected = solutions(Board.parse(OPEN));
+        assertTrue(expected.size() > 1);
+        SolutionSpliterator spliterator = new SolutionSpliterator(Board.parse(OPEN));
+        Spliterator<Board> handoff = spliterator.trySplit();
+        assertNotNull(handoff);
+        Set<String> found = new HashSet<>();
+        long count = drain(spliterator, found) + drain(handoff, found);
+        assertEquals(expected.size(), count);
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void splittingUntilNothingIsLeftStillFindsEverySolutionOnce() {
+        Set<String> expected = solutions(Board.parse(OPEN));
+        Set<String> found = new HashSet<>();
+        assertEquals(expected.size(), splitAndDrain(new SolutionSpliterator(Board.parse(OPEN)), found));
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void parallelStreamFindsTheSameSolutions() {
+        Set<String> expected = solutions(Board.parse(OPEN));
+        Set<String> parallel = SolutionSpliterator.stream(Board.parse(OPEN)).parallel()
+                .map(SudokuModelTest::values).collect(Collectors.toSet());
+        assertEquals(expected, parallel);
+        assertEquals(expected.size(), SolutionSpliterator.stream(Board.parse(OPEN)).parallel().count());
+    }
+
+    @Test
+    void searchOnlyGoesAsFarAsTheSolutionsTaken() {
+        Board empty = Board.parse("0".repeat(81));
+        List<Board> first = SolutionSpliterator.stream(empty).limit(3).collect(Collectors.toList());
+        assertEquals(3, first.size());
+        for (Board board : first) {
+            assertTrue(SolutionVerifier.verify(empty, board));
+        }
+        assertEquals(81, EngineSelector.countEmpty(empty));
+    }
+
+    /**
+     * Collects the solutions of a board sequentially
+     * @param board board to solve
+     * @return      each solution as 81 digits
+     */
+    private static Set<String> solutions(Board board) {
+        return SolutionSpliterator.stream(board).map(SudokuModelTest::values).collect(Collectors.toSet());
+    }
+
+    /**
+     * Takes every solution left in a spliterator
+     * @param spliterator   spliterator to drain
+     * @param found         receives each solution as 81 digits
+     * @return              number of solutions taken
+     */
+    private static long drain(Spliterator<Board> spliterator, Set<String> found) {
+        long[] count = new long[1];
+        spliterator.forEachRemaining(board -> {
+            found.add(SudokuModelTest.values(board));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Splits a spliterator recursively until neither half splits, then drains every piece
+     * @param spliterator   spliterator to split
+     * @param found         receives each solution as 81 digits
+     * @return              number of solutions taken
+     */
+    private static long splitAndDrain(Spliterator<Board> spliterator, Set<String> found) {
+        Spliterator<Board> handoff = spliterator.trySplit();
+        if (handoff == null) {
+            return drain(spliterator, found);
+        }
+        return splitAndDrain(handoff, found) + splitAndDrain(spliterator, found);
+    }
+}
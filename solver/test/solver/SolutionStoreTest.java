@@ -0,0 +1,138 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the memory mapped solution store and its canonical form of puzzles
+ * @author Will Mackin
+ */
+
+class SolutionStoreTest {
+    private static final byte[] HARD = values("800000000003600000070090200050007000000045700000100030001000068008500010090000400"); //needs a deep search
+    private static final byte[] SOLVED = values("812753649943682175675491283154237896369845721287169534521974368438526917796318452"); //its solution
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsWhatWasPut() throws IOException {
+        try (SolutionStore store = SolutionStore.open(dir.resolve("store"), 16)) {
+            assertNull(store.get(HARD));
+            assertTrue(store.put(HARD, SOLVED));
+            assertArrayEquals(SOLVED, store.get(HARD));
+            assertFalse(store.put(HARD, SOLVED));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void relabelledOrTransposedPuzzleFindsTheSameRecord() throws IOException {
+        try (SolutionStore store = SolutionStore.open(dir.resolve("store"), 16)) {
+            store.put(HARD, SOLVED);
+            assertArrayEquals(relabel(SOLVED), store.get(relabel(HARD)));
+            assertArrayEquals(transpose(SOLVED), store.get(transpose(HARD)));
+            assertArrayEquals(transpose(relabel(SOLVED)), store.get(transpose(relabel(HARD))));
+            assertFalse(store.put(transpose(HARD), transpose(SOLVED)));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void fullStoreRefusesNewPuzzles() throws IOException {
+        try (SolutionStore store = SolutionStore.open(dir.resolve("store"), 1)) {
+            assertTrue(store.put(HARD, SOLVED));
+            assertFalse(store.put(SOLVED, SOLVED));
+            assertNull(store.get(SOLVED));
+        }
+    }
+
+    @Test
+    void rejectsASolutionOfAnotherPuzzle() throws IOException {
+        try (SolutionStore store = SolutionStore.open(dir.resolve("store"), 16)) {
+            assertThrows(IllegalArgumentException.class, () -> store.put(HARD, relabel(SOLVED)));
+        }
+    }
+
+    @Test
+    void reopenedStoreKeepsItsRecordsAndCapacity() throws IOException {
+        Path file = dir.resolve("store");
+        try (SolutionStore store = SolutionStore.open(file, 16)) {
+            store.put(HARD, SOLVED);
+        }
+        try (SolutionStore store = SolutionStore.open(file, 1000)) {
+            assertEquals(16, store.getCapacity());
+            assertArrayEquals(SOLVED, store.get(HARD));
+        }
+    }
+
+    @Test
+    void readerFindsRecordsButCannotAddThem() throws IOException {
+        Path file = dir.resolve("store");
+        try (SolutionStore writer = SolutionStore.open(file, 16);
+             SolutionStore reader = SolutionStore.openReader(file)) {
+            writer.put(HARD, SOLVED);
+            assertArrayEquals(SOLVED, reader.get(HARD));
+            assertThrows(IllegalStateException.class, () -> reader.put(SOLVED, SOLVED));
+            SudokuModel model = new SudokuModel((subject, data) -> { });
+            assertThrows(IllegalArgumentException.class, () -> model.setSolutionStore(reader));
+        }
+    }
+
+    @Test
+    void secondWriterIsRefused() throws IOException {
+        Path file = dir.resolve("store");
+        try (SolutionStore store = SolutionStore.open(file, 16)) {
+            assertThrows(IOException.class, () -> SolutionStore.open(file, 16));
+        }
+    }
+
+    /**
+     * Reads a grid of digits
+     * @param grid  81 digits, 0 for empty cells
+     * @return      value of each cell
+     */
+    private static byte[] values(String grid) {
+        byte[] values = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            values[cell] = (byte) (grid.charAt(cell) - '0');
+        }
+        return values;
+    }
+
+    /**
+     * Swaps the digits of a grid for others, 1 becoming 9, 2 becoming 8 and so on
+     * @param grid  value of each cell
+     * @return      relabelled grid
+     */
+    private static byte[] relabel(byte[] grid) {
+        byte[] out = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            out[cell] = (byte) (grid[cell] == 0 ? 0 : 10 - grid[cell]);
+        }
+        return out;
+    }
+
+    /**
+     * Swaps the rows and columns of a grid
+     * @param grid  value of each cell
+     * @return      transposed grid
+     */
+    private static byte[] transpose(byte[] grid) {
+        byte[] out = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            out[(cell % 9) * 9 + cell / 9] = grid[cell];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,101 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests checking solved grids against their units and givens
+ * @author Will Mackin
+ */
+
+class SolutionVerifierTest {
+    private static final String HARD = "800000000003600000070090200050007000000045700000100030001000068008500010090000400"; //needs a deep search
+    private static final String SOLVED = "812753649943682175675491283154237896369845721287169534521974368438526917796318452"; //its solution
+
+    @Test
+    void acceptsASolutionThatKeepsEveryGiven() {
+        assertTrue(SolutionVerifier.isSolution(SolutionVerifier.pack(SOLVED)));
+        assertTrue(SolutionVerifier.verify(Variant.CLASSIC, SolutionVerifier.pack(HARD), SolutionVerifier.pack(SOLVED)));
+        assertTrue(SolutionVerifier.verify(Board.parse(HARD), Board.parse(SOLVED)));
+    }
+
+    @Test
+    void rejectsAGridThatChangesAGiven() {
+        byte[] relabelled = SolutionVerifier.pack(SOLVED);
+        for (int cell = 0; cell < 81; cell++) {
+            relabelled[cell] = (byte) (10 - relabelled[cell]);
+        }
+        assertTrue(SolutionVerifier.isSolution(relabelled));
+        assertFalse(SolutionVerifier.verify(Variant.CLASSIC, SolutionVerifier.pack(HARD), relabelled));
+    }
+
+    @Test
+    void rejectsADuplicateInAColumn() {
+        byte[] grid = SolutionVerifier.pack(SOLVED);
+        byte first = grid[0];
+        grid[0] = grid[8];
+        grid[8] = first; //the row still holds every value
+        assertFalse(SolutionVerifier.isSolution(grid));
+    }
+
+    @Test
+    void rejectsADuplicateInASquare() {
+        byte[] grid = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            grid[cell] = (byte) ((cell / 9 + cell % 9) % 9 + 1); //every row and column is correct, the squares are not
+        }
+        assertFalse(SolutionVerifier.isSolution(grid));
+    }
+
+    @Test
+    void rejectsValuesOutOfRange() {
+        byte[] empty = SolutionVerifier.pack(SOLVED);
+        empty[40] = 0;
+        assertFalse(SolutionVerifier.isSolution(empty));
+        byte[] large = SolutionVerifier.pack(SOLVED);
+        large[40] = 10;
+        assertFalse(SolutionVerifier.isSolution(large));
+        byte[] negative = SolutionVerifier.pack(SOLVED);
+        negative[40] = -1;
+        assertFalse(SolutionVerifier.isSolution(negative));
+    }
+
+    @Test
+    void checksTheExtraUnitsOfAVariant() {
+        byte[] grid = SolutionVerifier.pack(SOLVED);
+        assertFalse(SolutionVerifier.verify(Variant.DIAGONAL, new byte[81], grid)); //4 appears twice on the main diagonal
+        assertTrue(SolutionVerifier.verify(Variant.CLASSIC, new byte[81], grid));
+    }
+
+    @Test
+    void verifyAllCountsAndMarksEachGrid() {
+        byte[] solved = SolutionVerifier.pack(SOLVED);
+        byte[] broken = SolutionVerifier.pack(SOLVED);
+        broken[80] = broken[79];
+        byte[] puzzles = new byte[3 * 81];
+        byte[] solutions = new byte[3 * 81];
+        for (int i = 0; i < 3; i++) {
+            System.arraycopy(SolutionVerifier.pack(HARD), 0, puzzles, i * 81, 81);
+            System.arraycopy(i == 1 ? broken : solved, 0, solutions, i * 81, 81);
+        }
+        boolean[] results = new boolean[3];
+        assertEquals(2, SolutionVerifier.verifyAll(puzzles, solutions, 3, results));
+        assertArrayEquals(new boolean[]{true, false, true}, results);
+        assertEquals(2, SolutionVerifier.verifyAll(null, solutions, 3, null));
+        assertThrows(IllegalArgumentException.class, () -> SolutionVerifier.verifyAll(puzzles, solutions, 4, null));
+    }
+
+    @Test
+    void packReadsAnythingButDigitsAsEmpty() {
+        byte[] packed = SolutionVerifier.pack(HARD.replace('0', '.'));
+        assertArrayEquals(SolutionVerifier.pack(HARD), packed);
+        assertEquals(8, packed[0]);
+        assertEquals(0, packed[1]);
+        assertThrows(IllegalArgumentException.class, () -> SolutionVerifier.pack("123"));
+    }
+}
@@ -0,0 +1,72 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests whole solves through the model, including the portfolio race
+ * @author Will Mackin
+ */
+
+class SudokuModelTest {
+    private static final String HARD = "800000000003600000070090200050007000000045700000100030001000068008500010090000400"; //needs a deep search
+    private static final String SOLVED = "812753649943682175675491283154237896369845721287169534521974368438526917796318452"; //its solution
+
+    @Test
+    void solvesAndRecordsLatencyUnderTheSelectedEngine() {
+        SudokuModel model = load(HARD);
+        SolverMetrics.METRICS.reset();
+        model.solve();
+        assertEquals(SOLVED, values(model.getBoard()));
+        assertEquals(1, Arrays.stream(SolverMetrics.METRICS.latencyHistogram(model.getEngine().name())).sum());
+    }
+
+    @Test
+    void portfolioRecordsLatencyUnderTheWinningEngine() {
+        SudokuModel model = load(HARD);
+        model.setPortfolio(true);
+        SolverMetrics.METRICS.reset();
+        model.solve();
+        assertEquals(SOLVED, values(model.getBoard()));
+        Engine winner = model.getEngine();
+        assertTrue(winner == Engine.BACKTRACKING || winner == Engine.MOST_CONSTRAINED);
+        for (Engine engine : Engine.values()) {
+            long solves = Arrays.stream(SolverMetrics.METRICS.latencyHistogram(engine.name())).sum();
+            assertEquals(engine == winner ? 1 : 0, solves, engine.name());
+        }
+        assertTrue(model.getNodes() > 1);
+    }
+
+    /**
+     * Types a puzzle into a new model
+     * @param puzzle    81 digits, 0 for empty cells
+     * @return          model holding the puzzle
+     */
+    static SudokuModel load(String puzzle) {
+        SudokuModel model = new SudokuModel((subject, data) -> { });
+        model.setVerbose(false);
+        for (int cell = 0; cell < 81; cell++) {
+            if (puzzle.charAt(cell) != '0') {
+                model.getBoard().addNumber(puzzle.charAt(cell) - '0', cell / 9, cell % 9);
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Reads the values of a board
+     * @param board board to read
+     * @return      81 digits, 0 for empty cells
+     */
+    static String values(Board board) {
+        StringBuilder values = new StringBuilder();
+        for (byte value : Checkpoint.values(board)) {
+            values.append(value);
+        }
+        return values.toString();
+    }
+}
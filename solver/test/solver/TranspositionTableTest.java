@@ -0,0 +1,78 @@
+package solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the table of failed states and when the search looks it up
+ * @author Will Mackin
+ */
+
+class TranspositionTableTest {
+    private static final String HARD = "800000000003600000070090200050007000000045700000100030001000068008500010090000400"; //needs a deep search
+
+    @Test
+    void remembersAddedHashesAndCountsOverwrites() {
+        TranspositionTable table = new TranspositionTable(3);
+        assertEquals(4, table.getCapacity());
+        table.add(5);
+        assertTrue(table.contains(5));
+        assertFalse(table.contains(6));
+        table.add(9);
+        assertFalse(table.contains(5));
+        assertEquals(1, table.getOverwrites());
+        assertEquals(2, table.getStores());
+        assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+        table.clear();
+        assertFalse(table.contains(9));
+        assertEquals(1, table.getProbes());
+    }
+
+    @Test
+    void hashDependsOnlyOnPlacedValues() {
+        Board first = Board.parse(HARD);
+        Board second = Board.parse(HARD);
+        assertEquals(first.getHash(), second.getHash());
+        second.addNumberBacktracking(4, 0, 1);
+        assertFalse(first.getHash() == second.getHash());
+    }
+
+    @Test
+    void singleSolveDoesNotLookUpTheTable() {
+        SudokuModel model = load(new SudokuModel((subject, data) -> { }));
+        model.solve();
+        assertTrue(model.getBoard().boardFilled());
+        assertEquals(0, model.getTranspositionTable().getProbes());
+        assertTrue(model.getTranspositionTable().getStores() > 0);
+    }
+
+    @Test
+    void solvingAgainSkipsKnownDeadEnds() {
+        SudokuModel model = load(new SudokuModel((subject, data) -> { }));
+        model.solve();
+        long firstNodes = model.getNodes();
+        model.reset();
+        load(model).solve();
+        assertTrue(model.getBoard().boardFilled());
+        assertTrue(model.getTranspositionTable().getHits() > 0);
+        assertTrue(model.getNodes() < firstNodes);
+    }
+
+    /**
+     * Types the hard puzzle into a model
+     * @param model model to fill in
+     * @return      the same model
+     */
+    private static SudokuModel load(SudokuModel model) {
+        model.setVerbose(false);
+        for (int cell = 0; cell < 81; cell++) {
+            if (HARD.charAt(cell) != '0') {
+                model.getBoard().addNumber(HARD.charAt(cell) - '0', cell / 9, cell % 9);
+            }
+        }
+        return model;
+    }
+}
@@ -1,6 +1,6 @@
-module SudokuSolver {
+module ui {
     requires transitive javafx.controls;
     requires java.desktop;
+    requires transitive solver;
     exports ui;
-    exports solver;
-}
\ No newline at end of file
+}
@@ -9,10 +9,12 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import solver.SudokuModel;
+import solver.SolverMetrics;
 import solver.SudokuModelData;
 import solver.SudokuObserver;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 /**
  * This program opens up a GUI in which you can enter numbers on a sudoku grid to then solve
@@ -21,9 +23,16 @@ import java.util.ArrayList;
 
 public class SudokuView extends Application implements SudokuObserver<SudokuModel, SudokuModelData> {
 
-    private final ArrayList<SudokuButton> buttons = new ArrayList<>(); //buttons for each grid cell
+    private static final Background PLAIN = new Background(new BackgroundFill(Color.WHITE, CornerRadii.EMPTY, Insets.EMPTY)); //background of an ordinary cell
+    private static final Background SELECTED = new Background(new BackgroundFill(Color.YELLOW, CornerRadii.EMPTY, Insets.EMPTY)); //background of the selected cell
+    private static final Background CONFLICTED = new Background(new BackgroundFill(Color.SALMON, CornerRadii.EMPTY, Insets.EMPTY)); //background of a conflicting cell
+    private static final String[] DIGITS = {"", "1", "2", "3", "4", "5", "6", "7", "8", "9"}; //cell text by value
+
+    private final ArrayList<SudokuButton> buttons = new ArrayList<>(); //buttons for each grid cell, by button id
+    private final SudokuButton[] cells = new SudokuButton[81]; //buttons for each grid cell, by row * 9 + col
     private SudokuButton selectedButton; //button to highlight
     private SudokuModel model; //board model
+    private boolean solved; //true once a solve has filled the model past the numbers typed into the grid
 
     public class SudokuButton extends Button {
         /**
@@ -33,33 +42,70 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
         private final int col; //col location of button
         private int value; //number in cell
         private final int id; //button id
+        private boolean conflicted; //true if this cell is part of a conflict
+        private int shown; //number currently displayed, 0 if blank
 
         public SudokuButton(int row, int col, int value, int id) {
             this.row = row;
             this.col = col;
             this.value = value;
             this.id = id;
+            this.shown = value;
             this.setMinSize(100, 100);
             this.setMaxSize(100, 100);
-            if (value != 0) {
-                this.setText(String.valueOf(value));
+            this.setText(DIGITS[value]);
+            this.setStyle("-fx-font-size: 50");
+            this.setBackground(PLAIN);
+        }
+
+        /**
+         * Highlights this button and unhighlights the previously selected one
+         */
+        public void selectButton() {
+            SudokuButton previous = selectedButton;
+            selectedButton = this;
+            if (previous != null && previous != this) {
+                previous.paint();
+            }
+            paint();
+        }
+
+        /**
+         * Marks whether this button is part of a conflict
+         * @param conflicted    true to highlight the button as conflicting
+         */
+        public void setConflicted(boolean conflicted) {
+            if (this.conflicted != conflicted) {
+                this.conflicted = conflicted;
+                paint();
+            }
+        }
+
+        /**
+         * Colors this button by whether it is selected or conflicting
+         */
+        private void paint() {
+            if (this == selectedButton) {
+                this.setBackground(SELECTED);
+            }
+            else if (this.conflicted) {
+                this.setBackground(CONFLICTED);
             }
             else {
-                this.setText("");
+                this.setBackground(PLAIN);
             }
-            this.setStyle("-fx-font-size: 50");
-            this.setBackground(new Background(new BackgroundFill(Color.WHITE, CornerRadii.EMPTY, Insets.EMPTY)));
+            this.setTextFill(this.conflicted ? Color.RED : Color.BLACK);
         }
 
         /**
-         * Highlights this button and unhighlights any other buttons
+         * Displays a number in this button without changing its value, skipping the repaint if it is already shown
+         * @param shownValue    number to display, 0 for blank
          */
-        public void selectButton() {
-            for (SudokuButton button : buttons) {
-                button.setBackground(new Background(new BackgroundFill(Color.WHITE, CornerRadii.EMPTY, Insets.EMPTY)));
+        public void show(int shownValue) {
+            if (this.shown != shownValue) {
+                this.shown = shownValue;
+                this.setText(DIGITS[shownValue]);
             }
-            this.setBackground(new Background(new BackgroundFill(Color.YELLOW, CornerRadii.EMPTY, Insets.EMPTY)));
-            selectedButton = this;
         }
 
         /**
@@ -68,12 +114,7 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
          */
         public void setValue(int newValue) {
             this.value = newValue;
-            if (this.value != 0) {
-                this.setText(Integer.toString(newValue));
-            }
-            else {
-                this.setText("");
-            }
+            show(newValue);
         }
 
         /**
@@ -113,11 +154,52 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
      * Accessor for buttons collection
      * @return  collection of buttons in the grid
      */
-    @Override
     public ArrayList<SudokuButton> getButtons() {
         return this.buttons;
     }
 
+    /**
+     * Loads the numbers in the grid into the model, replacing anything a solve added
+     */
+    private void loadGrid() {
+        model.reset();
+        for (SudokuButton b : this.buttons) {
+            if (b.getValue() != 0) {
+                model.getBoard().addNumber(b.getValue(), b.getRow(), b.getCol());
+            }
+        }
+        this.solved = false;
+    }
+
+    /**
+     * Changes the number in the selected cell, updating only that cell of the model, and highlights any conflicts
+     * @param value new number, 0 to clear the cell
+     */
+    private void edit(int value) {
+        if (this.solved) {
+            loadGrid();
+        }
+        SudokuButton button = this.selectedButton;
+        if (button.getValue() != 0) {
+            model.getBoard().clearNumber(button.getRow(), button.getCol());
+        }
+        button.setValue(value);
+        if (value != 0) {
+            model.getBoard().addNumber(value, button.getRow(), button.getCol());
+        }
+        showConflicts();
+    }
+
+    /**
+     * Highlights the cells that the model reports as conflicting
+     */
+    private void showConflicts() {
+        Set<Integer> conflicts = model.getBoard().getConflicts();
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            this.cells[cell].setConflicted(conflicts.contains(cell));
+        }
+    }
+
     /**
      * Makes one of the 9 squares for the grid.
      * @param square    Square # to make
@@ -132,6 +214,7 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
                 SudokuButton finalButton = button;
                 button.setOnAction(event -> finalButton.selectButton());
                 this.buttons.add(button);
+                this.cells[button.getRow() * 9 + button.getCol()] = button;
                 gridPane.add(button, col, row);
             }
         }
@@ -179,13 +262,10 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
         solveButton.setMinHeight(50);
         solveButton.setMaxHeight(50);
         solveButton.setOnAction(event -> {
-            model.reset();
-            for (SudokuButton b : this.buttons) {
-                if (b.getValue() != 0) {
-                    model.getBoard().addNumber(b.getValue(), b.getRow(), b.getCol());
-                }
-            }
+            loadGrid();
+            showConflicts();
             model.solve();
+            this.solved = true;
         });
         Button resetButton = new Button("Reset");
         resetButton.setMinWidth(305);
@@ -194,8 +274,10 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
         resetButton.setMaxHeight(50);
         resetButton.setOnAction(event -> {
             model.reset();
+            this.solved = false;
             for (SudokuButton b : buttons) {
                 b.setValue(0);
+                b.setConflicted(false);
             }
         });
         Button quitButton = new Button("Quit");
@@ -211,106 +293,68 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
         scene.addEventFilter(KeyEvent.KEY_PRESSED, keyEvent -> {
             switch (keyEvent.getCode()) {
                 case DIGIT1:
-                    selectedButton.setValue(1);
+                    edit(1);
                     break;
                 case DIGIT2:
-                    selectedButton.setValue(2);
+                    edit(2);
                     break;
                 case DIGIT3:
-                    selectedButton.setValue(3);
+                    edit(3);
                     break;
                 case DIGIT4:
-                    selectedButton.setValue(4);
+                    edit(4);
                     break;
                 case DIGIT5:
-                    selectedButton.setValue(5);
+                    edit(5);
                     break;
                 case DIGIT6:
-                    selectedButton.setValue(6);
+                    edit(6);
                     break;
                 case DIGIT7:
-                    selectedButton.setValue(7);
+                    edit(7);
                     break;
                 case DIGIT8:
-                    selectedButton.setValue(8);
+                    edit(8);
                     break;
                 case DIGIT9:
-                    selectedButton.setValue(9);
+                    edit(9);
                     break;
                 case BACK_SPACE:
-                    selectedButton.setValue(0);
+                    edit(0);
                     break;
                 case UP:
                 case W:
-                    int id = selectedButton.getID();
-                    int newID;
-                    if (selectedButton.getRow() == 0 || selectedButton.getRow() == 3 || selectedButton.getRow() == 6) {
-                        newID = id - 21;
-                    }
-                    else {
-                        newID = id - 3;
-                    }
-                    if (newID < 0) {
-                        newID = newID + buttons.size();
-                    }
-                    buttons.get(newID).selectButton();
+                    select(selectedButton.getRow() + 8, selectedButton.getCol());
                     break;
                 case DOWN:
                 case S:
-                    id = selectedButton.getID();
-                    if (selectedButton.getRow() == 2 || selectedButton.getRow() == 5 || selectedButton.getRow() == 8) {
-                        newID = id + 21;
-                    }
-                    else {
-                        newID = id + 3;
-                    }
-                    if (newID >= buttons.size()) {
-                        newID = newID - buttons.size();
-                    }
-                    buttons.get(newID).selectButton();
+                    select(selectedButton.getRow() + 1, selectedButton.getCol());
                     break;
                 case RIGHT:
                 case D:
-                    id = selectedButton.getID();
-                    if (selectedButton.getCol() == 8) {
-                        newID = id + 61;
-                    }
-                    else if (selectedButton.getCol() == 2 || selectedButton.getCol() == 5) {
-                        newID = id + 7;
-                    }
-                    else {
-                        newID = id + 1;
-                    }
-                    if (newID >= buttons.size()) {
-                        newID = newID - buttons.size();
-                    }
-                    buttons.get(newID).selectButton();
+                    select(selectedButton.getRow(), selectedButton.getCol() + 1);
                     break;
                 case LEFT:
                 case A:
-                    id = selectedButton.getID();
-                    if (selectedButton.getCol() == 0) {
-                        newID = id - 61;
-                    }
-                    else if (selectedButton.getCol() == 3 || selectedButton.getCol() == 6) {
-                        newID = id - 7;
-                    }
-                    else {
-                        newID = id - 1;
-                    }
-                    if (newID < 0) {
-                        newID = newID + buttons.size();
-                    }
-                    buttons.get(newID).selectButton();
+                    select(selectedButton.getRow(), selectedButton.getCol() + 8);
                     break;
             }
-
         });
         stage.setScene(scene);
         this.model = new SudokuModel(this);
+        SolverMetrics.register();
         stage.show();
     }
 
+    /**
+     * Selects the button at a cell, wrapping around the edges of the grid
+     * @param row   row of the cell, taken mod 9
+     * @param col   column of the cell, taken mod 9
+     */
+    private void select(int row, int col) {
+        this.cells[(row % 9) * 9 + col % 9].selectButton();
+    }
+
     /**
      * Updates display
      * @param model model to get data from
@@ -318,12 +362,7 @@ public class SudokuView extends Application implements SudokuObserver<SudokuMode
      */
     @Override
     public void update(SudokuModel model, SudokuModelData data) {
-        if (data.getValue() != 0) {
-            this.buttons.get(data.getID()).setText(String.valueOf(data.getValue()));
-        }
-        else {
-            this.buttons.get(data.getRow() * 9 + data.getCol()).setText("");
-        }
+        this.cells[data.getRow() * 9 + data.getCol()].show(data.getValue());
     }
 
     public static void main( String[] args ) {